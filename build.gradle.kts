@@ -26,6 +26,8 @@ repositories {
 dependencies {
 	runtimeOnly("org.xerial:sqlite-jdbc")
 	implementation("org.hibernate.orm:hibernate-community-dialects")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-webmvc")
@@ -46,6 +48,22 @@ tasks.jacocoTestReport {
 	}
 }
 
-tasks.withType<Test> {
-	useJUnitPlatform()
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Sureye bakan karsilastirmalar varsayilan test kosusunda calismaz: ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs the timing comparisons tagged as benchmark."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
 }
@@ -38,6 +38,12 @@ public class CategoryController {
         return categoryService.get(id);
     }
 
+    @Operation(summary = "Get category by slug (served from the in-memory snapshot)")
+    @GetMapping("/by-slug/{slug}")
+    public CategoryDtos.CategoryResponse getBySlug(@PathVariable String slug) {
+        return categoryService.getBySlug(slug);
+    }
+
     @Operation(summary = "Update category (PUT)")
     @PutMapping("/{id}")
     public CategoryDtos.CategoryResponse update(@PathVariable Long id, @Valid @RequestBody CategoryDtos.UpdateCategoryRequest req) {
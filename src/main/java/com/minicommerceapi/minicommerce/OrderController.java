@@ -1,9 +1,13 @@
 package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.service.IdempotencyService;
+import com.minicommerceapi.minicommerce.service.OrderBatchWriter;
+import com.minicommerceapi.minicommerce.service.OrderOutbox;
 import com.minicommerceapi.minicommerce.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,23 +17,79 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderBatchWriter orderBatchWriter; // group commit kapaliysa null
+    private final OrderOutbox orderOutbox;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotencyService idempotencyService,
+                           ObjectProvider<OrderBatchWriter> orderBatchWriter, OrderOutbox orderOutbox) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.orderBatchWriter = orderBatchWriter.getIfAvailable();
+        this.orderOutbox = orderOutbox;
     }
 
-    @Operation(summary = "Create an order (decreases product stock)")
+    @Operation(summary = "Create an order (decreases product stock; retries with the same Idempotency-Key return the original order)")
     @PostMapping
-    public ResponseEntity<OrderDtos.OrderResponse> create(@Valid @RequestBody OrderDtos.CreateOrderRequest req) {
-        OrderDtos.OrderResponse created = orderService.create(req);
-        return ResponseEntity.created(URI.create("/api/orders/" + created.id())).body(created);
+    public ResponseEntity<OrderDtos.OrderResponse> create(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                          @Valid @RequestBody OrderDtos.CreateOrderRequest req) {
+        if (idempotencyKey == null) {
+            OrderDtos.OrderResponse created = (orderBatchWriter != null)
+                    ? orderBatchWriter.create(req)
+                    : orderService.create(req);
+            return ResponseEntity.created(URI.create("/api/orders/" + created.id())).body(created);
+        }
+        IdempotencyService.Result result = idempotencyService.createOrder(idempotencyKey, req);
+        OrderDtos.OrderResponse created = result.order();
+        return ResponseEntity.created(URI.create("/api/orders/" + created.id()))
+                .header(IDEMPOTENT_REPLAYED_HEADER, Boolean.toString(result.replayed()))
+                .body(created);
     }
 
-    @Operation(summary = "List orders")
+    @Operation(summary = "List orders, newest first (optional userId/status filters, keyset paginated via after/limit; next cursor in X-Next-Cursor header)")
     @GetMapping
-    public List<OrderDtos.OrderResponse> list() {
-        return orderService.list();
+    public ResponseEntity<List<OrderDtos.OrderResponse>> list(@RequestParam(required = false) Long userId,
+                                                              @RequestParam(required = false) String status,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int limit) {
+        OrderDtos.OrderPage page = orderService.list(userId, status, after, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return ok.body(page.items());
+    }
+
+    @Operation(summary = "Order change feed, oldest first (events after the 'after' id, or after the stored offset of 'consumer'; next cursor in X-Next-Cursor header)")
+    @GetMapping("/events")
+    public ResponseEntity<List<OrderDtos.OrderEvent>> events(@RequestParam(required = false) Long after,
+                                                             @RequestParam(required = false) String consumer,
+                                                             @RequestParam(defaultValue = "" + OrderOutbox.DEFAULT_PAGE_SIZE) int limit) {
+        long from = (after != null) ? after : (consumer != null) ? orderOutbox.offset(consumer) : 0L;
+        OrderDtos.OrderEventPage page = orderOutbox.read(from, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return ok.body(page.items());
+    }
+
+    @Operation(summary = "Get the stored offset of an order event consumer")
+    @GetMapping("/events/consumers/{consumer}")
+    public OrderDtos.OrderEventConsumerResponse consumerOffset(@PathVariable String consumer) {
+        return orderOutbox.consumer(consumer);
+    }
+
+    @Operation(summary = "Store the last order event a consumer has processed")
+    @PutMapping("/events/consumers/{consumer}")
+    public OrderDtos.OrderEventConsumerResponse commitOffset(@PathVariable String consumer,
+                                                             @Valid @RequestBody OrderDtos.AckOrderEventsRequest req) {
+        return orderOutbox.commitOffset(consumer, req.lastEventId());
     }
 
     @Operation(summary = "Get order by id")
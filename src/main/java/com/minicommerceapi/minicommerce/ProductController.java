@@ -1,22 +1,40 @@
 package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.service.ProductExportService;
+import com.minicommerceapi.minicommerce.service.ProductImportService;
 import com.minicommerceapi.minicommerce.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ProductExportService productExportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
     }
 
     @Operation(summary = "Create a product")
@@ -26,10 +44,73 @@ public class ProductController {
         return ResponseEntity.created(URI.create("/api/products/" + created.id())).body(created);
     }
 
-    @Operation(summary = "List products (optional filter by categoryId)")
+    @Operation(summary = "Bulk import products from a CSV (with header) or NDJSON body; returns per-row errors")
+    @PostMapping(value = "/bulk", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ProductDtos.BulkImportReport bulkImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                   InputStream body) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        return productImportService.importProducts(body, format);
+    }
+
+    @Operation(summary = "Export the whole catalog as NDJSON (one product per line, streamed)")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        productExportService.exportNdjson(response.getOutputStream());
+    }
+
+    @Operation(summary = "Get several products by id in one call (?ids=1,2,3); keeps request order, reports missing ids")
+    @GetMapping(params = "ids")
+    public ProductDtos.BatchGetResponse getByIds(@RequestParam List<Long> ids) {
+        return productService.getAll(ids);
+    }
+
+    @Operation(summary = "Get several products by id (POST body variant for long id lists)")
+    @PostMapping("/batch-get")
+    public ProductDtos.BatchGetResponse batchGet(@Valid @RequestBody ProductDtos.BatchGetRequest req) {
+        return productService.getAll(req.ids());
+    }
+
+    @Operation(summary = "List products (filters: categoryId, minPrice, maxPrice, inStock; sort: id, price_asc, price_desc; "
+            + "keyset paginated via after/limit; next cursor in X-Next-Cursor header)")
     @GetMapping
-    public List<ProductDtos.ProductResponse> list(@RequestParam(required = false) Long categoryId) {
-        return productService.list(categoryId);
+    public ResponseEntity<List<ProductDtos.ProductResponse>> list(@RequestParam(required = false) Long categoryId,
+                                                                  @RequestParam(required = false) BigDecimal minPrice,
+                                                                  @RequestParam(required = false) BigDecimal maxPrice,
+                                                                  @RequestParam(required = false) Boolean inStock,
+                                                                  @RequestParam(defaultValue = "id") String sort,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        ProductDtos.ProductFilter filter = new ProductDtos.ProductFilter(categoryId, minPrice, maxPrice, inStock);
+        ProductDtos.ProductPage page = productService.list(filter, parseSort(sort), after, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return ok.body(page.items());
+    }
+
+    @Operation(summary = "Search products by name tokens or SKU prefix (ranked, offset paginated; next offset in X-Next-Cursor header)")
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductDtos.ProductResponse>> search(@RequestParam String q,
+                                                                    @RequestParam(defaultValue = "0") int offset,
+                                                                    @RequestParam(defaultValue = "20") int limit) {
+        ProductDtos.ProductPage page = productService.search(q, offset, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return ok.body(page.items());
+    }
+
+    @Operation(summary = "SKU typeahead: products whose SKU starts with skuPrefix (case-insensitive, SKU order)")
+    @GetMapping("/suggest")
+    public List<ProductDtos.SkuSuggestion> suggest(@RequestParam String skuPrefix,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggestSkus(skuPrefix, limit);
     }
 
     @Operation(summary = "Get product by id")
@@ -50,4 +131,12 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ProductDtos.ProductSort parseSort(String sort) {
+        try {
+            return ProductDtos.ProductSort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("sort must be one of id, price_asc, price_desc");
+        }
+    }
 }
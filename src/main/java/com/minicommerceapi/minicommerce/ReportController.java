@@ -0,0 +1,32 @@
+package com.minicommerceapi.minicommerce;
+
+import com.minicommerceapi.minicommerce.dto.SalesDtos;
+import com.minicommerceapi.minicommerce.service.SalesReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+    private final SalesReportService salesReportService;
+
+    public ReportController(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    @Operation(summary = "Sales between two days (inclusive, UTC) grouped by day, month, product or category; read from the daily rollups")
+    @GetMapping("/sales")
+    public SalesDtos.SalesReport sales(@RequestParam(required = false) String from,
+                                       @RequestParam(required = false) String to,
+                                       @RequestParam(defaultValue = "day") String groupBy,
+                                       @RequestParam(defaultValue = "" + SalesReportService.DEFAULT_LIMIT) int limit) {
+        return salesReportService.report(from, to, groupBy, limit);
+    }
+
+    @Operation(summary = "Recompute the sales rollups of the given days from the orders (backfill)")
+    @PostMapping("/sales/rebuild")
+    public SalesDtos.RebuildResponse rebuild(@RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to) {
+        return salesReportService.rebuild(from, to);
+    }
+}
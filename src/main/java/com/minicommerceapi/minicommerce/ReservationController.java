@@ -0,0 +1,33 @@
+package com.minicommerceapi.minicommerce;
+
+import com.minicommerceapi.minicommerce.dto.ReservationDtos;
+import com.minicommerceapi.minicommerce.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationController {
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Operation(summary = "Hold stock for a user for holdMinutes (decreases product stock; place the order with reservationId before it expires)")
+    @PostMapping
+    public ResponseEntity<ReservationDtos.ReservationResponse> create(@Valid @RequestBody ReservationDtos.CreateReservationRequest req) {
+        ReservationDtos.ReservationResponse created = reservationService.create(req);
+        return ResponseEntity.created(URI.create("/api/reservations/" + created.id())).body(created);
+    }
+
+    @Operation(summary = "Get reservation by id")
+    @GetMapping("/{id}")
+    public ReservationDtos.ReservationResponse get(@PathVariable Long id) {
+        return reservationService.get(id);
+    }
+}
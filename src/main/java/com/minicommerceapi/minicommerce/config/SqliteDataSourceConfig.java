@@ -0,0 +1,94 @@
+package com.minicommerceapi.minicommerce.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Properties;
+
+// SQLite icin okuma/yazma ayrimi: yazmalar tek baglantidan, readOnly transaction'lar kucuk bir okuma havuzundan.
+// LazyConnectionDataSourceProxy baglantiyi ilk sorguda alir, transaction readOnly isaretlendikten sonra.
+// minicommerce.datasource.routing.enabled=false ile Boot'un tek havuzuna donulur.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "minicommerce.datasource.routing.enabled", havingValue = "true", matchIfMissing = true)
+public class SqliteDataSourceConfig {
+
+    public record SqlitePragmas(String journalMode, String synchronous, int busyTimeoutMillis, long mmapSize, int cacheSize) {
+
+        Properties toDriverProperties() {
+            Properties p = new Properties();
+            p.setProperty("journal_mode", journalMode);
+            p.setProperty("synchronous", synchronous);
+            p.setProperty("busy_timeout", Integer.toString(busyTimeoutMillis));
+            p.setProperty("mmap_size", Long.toString(mmapSize));
+            p.setProperty("cache_size", Integer.toString(cacheSize));
+            return p;
+        }
+    }
+
+    @Bean
+    SqlitePragmas sqlitePragmas(@Value("${minicommerce.datasource.pragma.journal-mode:WAL}") String journalMode,
+                                @Value("${minicommerce.datasource.pragma.synchronous:NORMAL}") String synchronous,
+                                @Value("${minicommerce.datasource.pragma.busy-timeout:5000}") int busyTimeoutMillis,
+                                @Value("${minicommerce.datasource.pragma.mmap-size:268435456}") long mmapSize,
+                                @Value("${minicommerce.datasource.pragma.cache-size:-20000}") int cacheSize) {
+        return new SqlitePragmas(journalMode, synchronous, busyTimeoutMillis, mmapSize, cacheSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    HikariDataSource sqliteWriterDataSource(@Value("${spring.datasource.url}") String url, SqlitePragmas pragmas) {
+        return writerPool(url, pragmas);
+    }
+
+    @Bean(destroyMethod = "close")
+    HikariDataSource sqliteReaderDataSource(@Value("${spring.datasource.url}") String url, SqlitePragmas pragmas,
+                                            @Value("${minicommerce.datasource.read-pool-size:4}") int readPoolSize) {
+        return readerPool(url, pragmas, readPoolSize);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("sqliteWriterDataSource") HikariDataSource sqliteWriterDataSource,
+                          @Qualifier("sqliteReaderDataSource") HikariDataSource sqliteReaderDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(sqliteWriterDataSource);
+        proxy.setReadOnlyDataSource(sqliteReaderDataSource);
+        // Varsayilanlari sabitliyoruz; yoksa proxy bunlari ogrenmek icin baslangicta baglanti acar.
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        return proxy;
+    }
+
+    // Transaction'lar yazma kilidini en basta alir (BEGIN IMMEDIATE)
+    public static HikariDataSource writerPool(String url, SqlitePragmas pragmas) {
+        HikariConfig config = baseConfig("sqlite-writer", url, pragmas);
+        config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        config.setMaximumPoolSize(1);
+        return new HikariDataSource(config);
+    }
+
+    // query_only: yanlislikla yapilan yazma kilit icin yarismak yerine hata verir
+    public static HikariDataSource readerPool(String url, SqlitePragmas pragmas, int size) {
+        HikariConfig config = baseConfig("sqlite-reader", url, pragmas);
+        config.setConnectionInitSql("PRAGMA query_only = 1");
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(1);
+        return new HikariDataSource(config);
+    }
+
+    private static HikariConfig baseConfig(String poolName, String url, SqlitePragmas pragmas) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl(url);
+        config.setDataSourceProperties(pragmas.toDriverProperties());
+        return config;
+    }
+}
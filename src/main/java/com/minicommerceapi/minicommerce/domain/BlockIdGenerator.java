@@ -0,0 +1,139 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// SQLite'ta sequence yok: id_blocks tablosundan tek UPDATE ile blockSize'lik id blogu alinir, bellekten dagitilir.
+// Id'ler INSERT'ten once bilindigi icin Hibernate insert'leri batch'leyebilir (IDENTITY buna izin vermez).
+// Rezervasyon cagiranin transaction'inda yapilir (ayri transaction tek yazar kilidinde deadlock olur);
+// blok ancak o transaction commit olunca paylasilir, rollback'te atilir.
+public class BlockIdGenerator implements IdentifierGenerator {
+    private static final String RESERVE_SQL =
+            "update id_blocks set next_val = next_val + ? where segment = ? returning next_val";
+
+    private static final class Block {
+        long next;
+        final long limit;
+
+        Block(long next, long limit) {
+            this.next = next;
+            this.limit = limit;
+        }
+    }
+
+    private final String segment;
+    private final int blockSize;
+    private final String seedSql;
+    private final Object lock = new Object();
+    private long next; // commit edilmis, paylasilan blok: [next, limit)
+    private long limit;
+
+    public BlockIdGenerator(BlockId config, Member member, GeneratorCreationContext context) {
+        String table = context.getPersistentClass().getTable().getName();
+        this.segment = table;
+        this.blockSize = config.blockSize();
+        // INSERT ... SELECT ile upsert icin SQLite "where true" ister
+        this.seedSql = "insert into id_blocks (segment, next_val) select ?, coalesce(max(id), 0) + 1 from "
+                + table + " where true on conflict(segment) do nothing";
+    }
+
+    // Savepoint'e rollback'ten sonra cagrilmali: rezervasyon geri alinmis olabilir.
+    // Generator'lar SessionFactory'nin entity tanimlarindan bulunur; baska factory'lerinkine dokunulmaz.
+    public static void discardPendingBlocks(SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof BlockIdGenerator generator) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(generator);
+            }
+        });
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        synchronized (lock) {
+            if (next < limit) {
+                return next++;
+            }
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // transaction yok: UPDATE auto-commit ile kalici, blok hemen paylasilabilir
+            Block block = reserveBlock(session);
+            long id = block.next++;
+            publish(block);
+            return id;
+        }
+        Block pending = (Block) TransactionSynchronizationManager.getResource(this);
+        if (pending == null || pending.next >= pending.limit) {
+            pending = bindPending(reserveBlock(session));
+        }
+        return pending.next++;
+    }
+
+    private Block bindPending(Block block) {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.unbindResource(this);
+        } else {
+            // discardPendingBlocks sonrasi ikinci kez kaydedilebilir; publish tekrarlansa da zararsiz
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    Block committed = (Block) TransactionSynchronizationManager.getResource(BlockIdGenerator.this);
+                    if (committed != null) {
+                        publish(committed);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BlockIdGenerator.this);
+                }
+            });
+        }
+        TransactionSynchronizationManager.bindResource(this, block);
+        return block;
+    }
+
+    // Daha cok id'si kalan blok tutulur
+    private void publish(Block block) {
+        synchronized (lock) {
+            if (block.limit - block.next > limit - next) {
+                next = block.next;
+                limit = block.limit;
+                block.next = block.limit; // artik yalnizca paylasilan kopya kullanilir
+            }
+        }
+    }
+
+    private Block reserveBlock(SharedSessionContractImplementor session) {
+        String sql = seedSql;
+        try {
+            Connection con = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+            try (PreparedStatement seed = con.prepareStatement(seedSql)) {
+                seed.setString(1, segment);
+                seed.executeUpdate();
+            }
+            sql = RESERVE_SQL;
+            try (PreparedStatement reserve = con.prepareStatement(RESERVE_SQL)) {
+                reserve.setInt(1, blockSize);
+                reserve.setString(2, segment);
+                try (ResultSet rs = reserve.executeQuery()) {
+                    rs.next();
+                    long end = rs.getLong(1);
+                    return new Block(end - blockSize, end);
+                }
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not reserve id block for " + segment, sql);
+        }
+    }
+}
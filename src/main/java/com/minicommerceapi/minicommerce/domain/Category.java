@@ -1,7 +1,9 @@
 package com.minicommerceapi.minicommerce.domain;
 
+import com.minicommerceapi.minicommerce.service.CategoryChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
@@ -10,6 +12,7 @@ import jakarta.persistence.UniqueConstraint;
         @UniqueConstraint(name = "uk_categories_name", columnNames = "name"),
         @UniqueConstraint(name = "uk_categories_slug", columnNames = "slug")
 })
+@EntityListeners(CategoryChangeListener.class)
 public class Category extends BaseEntity {
 
     @Column(nullable = false, length = 80)
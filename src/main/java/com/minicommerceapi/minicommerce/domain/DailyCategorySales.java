@@ -0,0 +1,80 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Gun ve kategori basina satis ozeti; gun/ay toplamlari gunde daha az satir oldugu icin buradan okunur.
+@Entity
+@Table(name = "daily_category_sales")
+@IdClass(DailyCategorySales.Key.class)
+public class DailyCategorySales {
+
+    @Id
+    @Column(length = 10)
+    private String day;
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false)
+    private long revenueCents;
+
+    @Column(nullable = false)
+    private long paidUnits;
+
+    @Column(nullable = false)
+    private long paidRevenueCents;
+
+    public String getDay() {
+        return day;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    public long getPaidUnits() {
+        return paidUnits;
+    }
+
+    public long getPaidRevenueCents() {
+        return paidRevenueCents;
+    }
+
+    public static class Key implements Serializable {
+        private String day;
+        private Long categoryId;
+
+        protected Key() {
+        }
+
+        public Key(String day, Long categoryId) {
+            this.day = day;
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(day, k.day) && Objects.equals(categoryId, k.categoryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, categoryId);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Gun (UTC) ve urun basina satis ozeti. day yyyy-MM-dd metin: aralik ve ay prefix'i string olarak karsilastirilir.
+// units/revenue iptal olmayan siparisleri, paid* kolonlari sadece PAID siparisleri sayar.
+@Entity
+@Table(name = "daily_product_sales", indexes = {
+        @Index(name = "idx_daily_product_sales_product", columnList = "product_id, day")
+})
+@IdClass(DailyProductSales.Key.class)
+public class DailyProductSales {
+
+    @Id
+    @Column(length = 10)
+    private String day;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false)
+    private long revenueCents;
+
+    @Column(nullable = false)
+    private long paidUnits;
+
+    @Column(nullable = false)
+    private long paidRevenueCents;
+
+    public String getDay() {
+        return day;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    public long getPaidUnits() {
+        return paidUnits;
+    }
+
+    public long getPaidRevenueCents() {
+        return paidRevenueCents;
+    }
+
+    public static class Key implements Serializable {
+        private String day;
+        private Long productId;
+
+        protected Key() {
+        }
+
+        public Key(String day, Long productId) {
+            this.day = day;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(day, k.day) && Objects.equals(productId, k.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, productId);
+        }
+    }
+}
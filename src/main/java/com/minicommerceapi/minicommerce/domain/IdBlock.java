@@ -0,0 +1,27 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Tablo basina: henuz dagitilmamis ilk id. Sadece BlockIdGenerator yazar; tablo schema update ile olussun diye map'li.
+@Entity
+@Table(name = "id_blocks")
+public class IdBlock {
+
+    @Id
+    @Column(length = 64)
+    private String segment;
+
+    @Column(nullable = false)
+    private long nextVal;
+
+    public String getSegment() {
+        return segment;
+    }
+
+    public long getNextVal() {
+        return nextVal;
+    }
+}
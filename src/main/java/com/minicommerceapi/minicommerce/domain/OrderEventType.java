@@ -0,0 +1,6 @@
+package com.minicommerceapi.minicommerce.domain;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED
+}
@@ -16,6 +16,10 @@ public class OrderItem extends BaseEntity {
     @JoinColumn(name = "product_id", nullable = false, foreignKey = @ForeignKey(name = "fk_items_product"))
     private Product product;
 
+    // Siparis anindaki kategori: urun sonradan baska kategoriye tasinsa da satis ozetleri buna yazilir
+    @Column(name = "category_id")
+    private Long categoryId;
+
     @Column(nullable = false)
     private int quantity;
 
@@ -41,6 +45,14 @@ public class OrderItem extends BaseEntity {
         this.product = product;
     }
 
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
     public int getQuantity() {
         return quantity;
     }
@@ -1,12 +1,18 @@
 package com.minicommerceapi.minicommerce.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "products", uniqueConstraints = {
         @UniqueConstraint(name = "uk_products_sku", columnNames = "sku")
+}, indexes = {
+        @Index(name = "idx_products_category_id", columnList = "category_id, id"),
+        // Fiyat/stok filtreleri (GET /api/products?minPrice=..&inStock=..) icin
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_stock", columnList = "stock")
 })
 public class Product extends BaseEntity {
 
@@ -22,6 +28,13 @@ public class Product extends BaseEntity {
     @Column(nullable = false)
     private int stock;
 
+    // Optimistic locking: eszamanli patch/stok degisikligi commit'te yakalanir (TransactionRetry tekrar dener).
+    // Default 0: mevcut tabloya kolon eklenirken SQLite NOT NULL kolon icin default ister.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(name = "fk_products_category"))
     private Category category;
@@ -65,4 +78,8 @@ public class Product extends BaseEntity {
     public void setCategory(Category category) {
         this.category = category;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,59 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Urun basina puan ozeti (adet, toplam, 1-5 yildiz histogrami); ReviewService ayni transaction'da gunceller.
+@Entity
+@Table(name = "product_rating_stats")
+public class ProductRatingStats {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private long reviewCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    @Column(nullable = false)
+    private long stars1;
+
+    @Column(nullable = false)
+    private long stars2;
+
+    @Column(nullable = false)
+    private long stars3;
+
+    @Column(nullable = false)
+    private long stars4;
+
+    @Column(nullable = false)
+    private long stars5;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    // index 0 = 1 yildiz
+    public long[] getHistogram() {
+        return new long[]{stars1, stars2, stars3, stars4, stars5};
+    }
+
+    // Yorum yoksa null
+    public Double getAverage() {
+        return reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+    }
+}
@@ -0,0 +1,63 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Stok rezervasyon yapilirken dusulur; siparis tuketmezse sure dolunca geri konur.
+@Entity
+@Table(name = "reservations", indexes = {
+        // Acilista suresi dolmamis rezervasyonlar timer wheel'e yeniden yuklenir
+        @Index(name = "idx_reservations_status_expires", columnList = "status, expires_at")
+})
+public class Reservation extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_reservations_user"))
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<ReservationItem> items = new ArrayList<>();
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<ReservationItem> getItems() {
+        return items;
+    }
+
+    public void addItem(ReservationItem item) {
+        items.add(item);
+        item.setReservation(this);
+    }
+}
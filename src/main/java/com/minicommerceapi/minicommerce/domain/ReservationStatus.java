@@ -0,0 +1,7 @@
+package com.minicommerceapi.minicommerce.domain;
+
+public enum ReservationStatus {
+    HELD,
+    CONSUMED,
+    EXPIRED
+}
@@ -1,11 +1,13 @@
 package com.minicommerceapi.minicommerce.dto;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 public class OrderDtos {
@@ -15,10 +17,16 @@ public class OrderDtos {
             @Min(1) int quantity
     ) {}
 
+    // reservationId verilirse kalemler rezervasyonla ayni olmali
     public record CreateOrderRequest(
             @NotNull Long userId,
-            @NotNull @Size(min = 1) List<@Valid CreateOrderItem> items
-    ) {}
+            @NotNull @Size(min = 1) List<@Valid CreateOrderItem> items,
+            Long reservationId
+    ) {
+        public CreateOrderRequest(Long userId, List<CreateOrderItem> items) {
+            this(userId, items, null);
+        }
+    }
 
     public record OrderItemResponse(
             Long productId,
@@ -40,4 +48,33 @@ public record PatchOrderRequest(
         @NotNull String status
 ) {}
 
+    public record OrderPage(
+            List<OrderResponse> items,
+            String nextCursor
+    ) {}
+
+    // payload: degisiklikten hemen sonraki siparis (OrderResponse)
+    public record OrderEvent(
+            Long id,
+            Long orderId,
+            String type,
+            Instant createdAt,
+            @JsonRawValue String payload
+    ) {}
+
+    public record OrderEventPage(
+            List<OrderEvent> items,
+            String nextCursor
+    ) {}
+
+    public record AckOrderEventsRequest(
+            @NotNull @Min(0) Long lastEventId
+    ) {}
+
+    public record OrderEventConsumerResponse(
+            String consumer,
+            long lastEventId,
+            Instant updatedAt
+    ) {}
+
 }
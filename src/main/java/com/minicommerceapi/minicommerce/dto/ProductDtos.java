@@ -3,6 +3,7 @@ package com.minicommerceapi.minicommerce.dto;
 import jakarta.validation.constraints.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ProductDtos {
     public record CreateProductRequest(
@@ -28,6 +29,76 @@ public class ProductDtos {
             BigDecimal price,
             int stock,
             Long categoryId,
-            String categoryName
+            String categoryName,
+            Double avgRating,
+            long reviewCount
+    ) {}
+
+    // Arama index'i bundan kurulur
+    public record ProductLabel(
+            Long id,
+            String name,
+            String sku
+    ) {}
+
+    // Stok ledger'i bundan doldurulur
+    public record ProductStock(
+            Long id,
+            int stock
+    ) {}
+
+    public record BatchGetRequest(
+            @NotEmpty @Size(max = 200) List<@NotNull Long> ids
+    ) {}
+
+    public record BatchGetResponse(
+            List<ProductResponse> items,
+            List<Long> missingIds
+    ) {}
+
+    public record SkuSuggestion(
+            Long id,
+            String sku
+    ) {}
+
+    // null alanlara gore filtrelenmez
+    public record ProductFilter(
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean inStock
+    ) {
+        public boolean onlyCategory() {
+            return minPrice == null && maxPrice == null && inStock == null;
+        }
+    }
+
+    public enum ProductSort {
+        ID, PRICE_ASC, PRICE_DESC
+    }
+
+    public record ProductPage(
+            List<ProductResponse> items,
+            String nextCursor
+    ) {}
+
+    // Onceki sayfanin son satiri; price sadece fiyat siralamasinda dolu
+    public record ProductCursor(
+            BigDecimal price,
+            Long id
+    ) {}
+
+    public record BulkImportError(
+            long line,
+            String sku,
+            String message
+    ) {}
+
+    public record BulkImportReport(
+            long rows,
+            long created,
+            long failed,
+            List<BulkImportError> errors,
+            boolean errorsTruncated
     ) {}
 }
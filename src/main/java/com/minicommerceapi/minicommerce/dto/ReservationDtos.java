@@ -0,0 +1,43 @@
+package com.minicommerceapi.minicommerce.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ReservationDtos {
+
+    // holdMinutes yoksa ayarlardaki varsayilan sure kullanilir
+    public record CreateReservationRequest(
+            @NotNull Long userId,
+            @NotNull @Size(min = 1) List<@Valid OrderDtos.CreateOrderItem> items,
+            @Min(1) Integer holdMinutes
+    ) {}
+
+    public record ReservationItemResponse(
+            Long productId,
+            int quantity
+    ) {}
+
+    public record ReservationResponse(
+            Long id,
+            Long userId,
+            String status,
+            Instant expiresAt,
+            List<ReservationItemResponse> items
+    ) {}
+
+    // Acilista timer wheel bundan doldurulur
+    public record ReservationDeadline(
+            Long id,
+            Instant expiresAt
+    ) {}
+
+    public record HeldQuantity(
+            Long productId,
+            Long quantity
+    ) {}
+}
@@ -0,0 +1,40 @@
+package com.minicommerceapi.minicommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SalesDtos {
+
+    // key groupBy'a gore gun, ay, urun id'si ya da kategori id'si; name sadece urun/kategoride dolu
+    public record SalesRow(
+            String key,
+            String name,
+            long units,
+            BigDecimal revenue,
+            long paidUnits,
+            BigDecimal paidRevenue
+    ) {
+        // Rollup sorgularindaki constructor ifadesi icin: tutarlar kurus olarak toplanir
+        public SalesRow(String key, String name, Long units, Long revenueCents, Long paidUnits, Long paidRevenueCents) {
+            this(key, name, units, BigDecimal.valueOf(revenueCents, 2), paidUnits, BigDecimal.valueOf(paidRevenueCents, 2));
+        }
+
+        public SalesRow(String key, Long units, Long revenueCents, Long paidUnits, Long paidRevenueCents) {
+            this(key, null, units, revenueCents, paidUnits, paidRevenueCents);
+        }
+    }
+
+    public record SalesReport(
+            LocalDate from,
+            LocalDate to,
+            String groupBy,
+            List<SalesRow> rows
+    ) {}
+
+    public record RebuildResponse(
+            LocalDate from,
+            LocalDate to,
+            int days
+    ) {}
+}
@@ -0,0 +1,66 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.DailyCategorySales;
+import com.minicommerceapi.minicommerce.dto.SalesDtos;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface DailyCategorySalesRepository extends JpaRepository<DailyCategorySales, DailyCategorySales.Key> {
+
+    // Tek upsert: satir yoksa olusturulur
+    @Modifying
+    @Query(value = "insert into daily_category_sales"
+            + " (day, category_id, units, revenue_cents, paid_units, paid_revenue_cents)"
+            + " values (:day, :categoryId, :units, :revenueCents, :paidUnits, :paidRevenueCents)"
+            + " on conflict(day, category_id) do update set"
+            + " units = units + excluded.units,"
+            + " revenue_cents = revenue_cents + excluded.revenue_cents,"
+            + " paid_units = paid_units + excluded.paid_units,"
+            + " paid_revenue_cents = paid_revenue_cents + excluded.paid_revenue_cents", nativeQuery = true)
+    int applyDelta(@Param("day") String day, @Param("categoryId") Long categoryId,
+                   @Param("units") long units, @Param("revenueCents") long revenueCents,
+                   @Param("paidUnits") long paidUnits, @Param("paidRevenueCents") long paidRevenueCents);
+
+    @Modifying
+    @Query("delete from DailyCategorySales s where s.day = :day")
+    int deleteDay(@Param("day") String day);
+
+    // Siparis kalemindeki kategoriye gore (urunun guncel kategorisine degil); orders.created_at epoch ms
+    @Modifying
+    @Query(value = "insert into daily_category_sales"
+            + " (day, category_id, units, revenue_cents, paid_units, paid_revenue_cents)"
+            + " select :day, i.category_id,"
+            + " sum(case when o.status <> 'CANCELLED' then i.quantity else 0 end),"
+            + " sum(case when o.status <> 'CANCELLED' then cast(round(i.line_total * 100) as integer) else 0 end),"
+            + " sum(case when o.status = 'PAID' then i.quantity else 0 end),"
+            + " sum(case when o.status = 'PAID' then cast(round(i.line_total * 100) as integer) else 0 end)"
+            + " from orders o join order_items i on i.order_id = o.id"
+            + " where o.created_at >= :fromMillis and o.created_at < :toMillis"
+            + " group by i.category_id", nativeQuery = true)
+    int rebuildDay(@Param("day") String day, @Param("fromMillis") long fromMillis, @Param("toMillis") long toMillis);
+
+    @Query("select new com.minicommerceapi.minicommerce.dto.SalesDtos$SalesRow(s.day,"
+            + " sum(s.units), sum(s.revenueCents), sum(s.paidUnits), sum(s.paidRevenueCents))"
+            + " from DailyCategorySales s where s.day between :from and :to"
+            + " group by s.day order by s.day")
+    List<SalesDtos.SalesRow> sumByDay(@Param("from") String from, @Param("to") String to);
+
+    // Gun anahtari "yyyy-MM-dd": ilk 7 karakter ay
+    @Query("select new com.minicommerceapi.minicommerce.dto.SalesDtos$SalesRow(substring(s.day, 1, 7),"
+            + " sum(s.units), sum(s.revenueCents), sum(s.paidUnits), sum(s.paidRevenueCents))"
+            + " from DailyCategorySales s where s.day between :from and :to"
+            + " group by substring(s.day, 1, 7) order by substring(s.day, 1, 7)")
+    List<SalesDtos.SalesRow> sumByMonth(@Param("from") String from, @Param("to") String to);
+
+    @Query("select new com.minicommerceapi.minicommerce.dto.SalesDtos$SalesRow(cast(s.categoryId as String), c.name,"
+            + " sum(s.units), sum(s.revenueCents), sum(s.paidUnits), sum(s.paidRevenueCents))"
+            + " from DailyCategorySales s left join Category c on c.id = s.categoryId"
+            + " where s.day between :from and :to"
+            + " group by s.categoryId, c.name order by sum(s.revenueCents) desc, s.categoryId")
+    List<SalesDtos.SalesRow> sumByCategory(@Param("from") String from, @Param("to") String to, Limit limit);
+}
@@ -0,0 +1,53 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.DailyProductSales;
+import com.minicommerceapi.minicommerce.dto.SalesDtos;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSales.Key> {
+
+    // Tek upsert: satir yoksa olusturulur
+    @Modifying
+    @Query(value = "insert into daily_product_sales"
+            + " (day, product_id, units, revenue_cents, paid_units, paid_revenue_cents)"
+            + " values (:day, :productId, :units, :revenueCents, :paidUnits, :paidRevenueCents)"
+            + " on conflict(day, product_id) do update set"
+            + " units = units + excluded.units,"
+            + " revenue_cents = revenue_cents + excluded.revenue_cents,"
+            + " paid_units = paid_units + excluded.paid_units,"
+            + " paid_revenue_cents = paid_revenue_cents + excluded.paid_revenue_cents", nativeQuery = true)
+    int applyDelta(@Param("day") String day, @Param("productId") Long productId,
+                   @Param("units") long units, @Param("revenueCents") long revenueCents,
+                   @Param("paidUnits") long paidUnits, @Param("paidRevenueCents") long paidRevenueCents);
+
+    @Modifying
+    @Query("delete from DailyProductSales s where s.day = :day")
+    int deleteDay(@Param("day") String day);
+
+    // orders.created_at epoch ms olarak saklaniyor
+    @Modifying
+    @Query(value = "insert into daily_product_sales"
+            + " (day, product_id, units, revenue_cents, paid_units, paid_revenue_cents)"
+            + " select :day, i.product_id,"
+            + " sum(case when o.status <> 'CANCELLED' then i.quantity else 0 end),"
+            + " sum(case when o.status <> 'CANCELLED' then cast(round(i.line_total * 100) as integer) else 0 end),"
+            + " sum(case when o.status = 'PAID' then i.quantity else 0 end),"
+            + " sum(case when o.status = 'PAID' then cast(round(i.line_total * 100) as integer) else 0 end)"
+            + " from orders o join order_items i on i.order_id = o.id"
+            + " where o.created_at >= :fromMillis and o.created_at < :toMillis"
+            + " group by i.product_id", nativeQuery = true)
+    int rebuildDay(@Param("day") String day, @Param("fromMillis") long fromMillis, @Param("toMillis") long toMillis);
+
+    @Query("select new com.minicommerceapi.minicommerce.dto.SalesDtos$SalesRow(cast(s.productId as String), p.name,"
+            + " sum(s.units), sum(s.revenueCents), sum(s.paidUnits), sum(s.paidRevenueCents))"
+            + " from DailyProductSales s left join Product p on p.id = s.productId"
+            + " where s.day between :from and :to"
+            + " group by s.productId, p.name order by sum(s.revenueCents) desc, s.productId")
+    List<SalesDtos.SalesRow> sumByProduct(@Param("from") String from, @Param("to") String to, Limit limit);
+}
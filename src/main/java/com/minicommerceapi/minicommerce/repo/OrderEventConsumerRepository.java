@@ -0,0 +1,7 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.OrderEventConsumer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OrderEventConsumerRepository extends JpaRepository<OrderEventConsumer, String> {
+}
@@ -0,0 +1,26 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.OrderOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Primary key uzerinden seek: sayfa maliyeti tablo boyutundan bagimsiz
+    List<OrderOutboxEvent> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    @Query("select coalesce(max(e.id), 0) from OrderOutboxEvent e")
+    long findMaxId();
+
+    // En yeni satir hic silinmez: rowid'nin (max + 1) tekrar kullanilip cursor'larin kacirmasi onlenir
+    @Modifying
+    @Query("delete from OrderOutboxEvent e where e.createdAt < :before"
+            + " and e.id < (select max(x.id) from OrderOutboxEvent x)")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -1,7 +1,54 @@
 package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.Order;
+import com.minicommerceapi.minicommerce.domain.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // Listeler: en yeni siparis once, (created_at, id) uzerinden keyset sayfalama.
+    // "createdAt <= :createdAt" kosulu index uzerinde range taramasi yapilabilsin diye ayrica yazildi.
+    // Kullanici join ile gelir; kalemler ve urunler batch fetch ile (hibernate.default_batch_fetch_size)
+    // sayfa basina sabit sayida sorguda yuklenir.
+    @EntityGraph(attributePaths = "user")
+    @Query("select o from Order o where o.user.id = :userId and (:status is null or o.status = :status)"
+            + " and o.createdAt <= :createdAt and (o.createdAt < :createdAt or o.id < :id)"
+            + " order by o.createdAt desc, o.id desc")
+    List<Order> findUserPage(@Param("userId") Long userId, @Param("status") OrderStatus status,
+                             @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select o from Order o where (:status is null or o.status = :status)"
+            + " and o.createdAt <= :createdAt and (o.createdAt < :createdAt or o.id < :id)"
+            + " order by o.createdAt desc, o.id desc")
+    List<Order> findPage(@Param("status") OrderStatus status,
+                         @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    // Tek siparis: kullanici, kalemler ve urunler tek sorguda.
+    @Override
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    Optional<Order> findById(Long id);
+
+    // idx_orders_created uzerinden tek satir okunur; tablo bossa null
+    @Query("select min(o.createdAt) from Order o")
+    Instant findFirstCreatedAt();
+
+    @Query("select max(o.createdAt) from Order o")
+    Instant findLastCreatedAt();
+
+    // category_id kolonundan onceki kalemler: urunun su anki kategorisiyle bir kez doldurulur
+    @Modifying
+    @Query(value = "update order_items set category_id ="
+            + " (select p.category_id from products p where p.id = order_items.product_id)"
+            + " where category_id is null", nativeQuery = true)
+    int fillMissingItemCategories();
 }
@@ -0,0 +1,39 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    // Tek SQLite upsert: es zamanli yorum yazmalari guncelleme kaybetmez
+    @Modifying
+    @Query(value = "insert into product_rating_stats"
+            + " (product_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5)"
+            + " values (:productId, :count, :sum, :s1, :s2, :s3, :s4, :s5)"
+            + " on conflict(product_id) do update set"
+            + " review_count = review_count + excluded.review_count,"
+            + " rating_sum = rating_sum + excluded.rating_sum,"
+            + " stars1 = stars1 + excluded.stars1,"
+            + " stars2 = stars2 + excluded.stars2,"
+            + " stars3 = stars3 + excluded.stars3,"
+            + " stars4 = stars4 + excluded.stars4,"
+            + " stars5 = stars5 + excluded.stars5", nativeQuery = true)
+    int applyDelta(@Param("productId") Long productId, @Param("count") long count, @Param("sum") long sum,
+                   @Param("s1") long s1, @Param("s2") long s2, @Param("s3") long s3,
+                   @Param("s4") long s4, @Param("s5") long s5);
+
+    @Modifying
+    @Query(value = "insert or replace into product_rating_stats"
+            + " (product_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5)"
+            + " select product_id, count(*), sum(rating),"
+            + " sum(case when rating = 1 then 1 else 0 end),"
+            + " sum(case when rating = 2 then 1 else 0 end),"
+            + " sum(case when rating = 3 then 1 else 0 end),"
+            + " sum(case when rating = 4 then 1 else 0 end),"
+            + " sum(case when rating = 5 then 1 else 0 end)"
+            + " from reviews group by product_id", nativeQuery = true)
+    int rebuildAll();
+}
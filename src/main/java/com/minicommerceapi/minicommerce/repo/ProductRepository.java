@@ -1,12 +1,75 @@
 package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    String PRODUCT_RESPONSE = "new com.minicommerceapi.minicommerce.dto.ProductDtos$ProductResponse("
+            + "p.id, p.name, p.sku, p.price, p.stock, c.id, c.name,"
+            + " cast(s.ratingSum as double) / s.reviewCount, coalesce(s.reviewCount, 0L))";
+    // Puan ozeti materialized tablodan gelir; yorumu olmayan urunde satir yoktur (left join -> null/0).
+    String PRODUCT_FROM = " from Product p join p.category c left join ProductRatingStats s on s.productId = p.id";
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsByCategoryId(Long categoryId);
     List<Product> findByCategoryId(Long categoryId);
     boolean existsBySku(String sku);
+
+    @Query("select p.sku from Product p where p.sku in :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    // Okuma sorgulari kategoriyi join ile tek SELECT'te alip DTO'yu dogrudan uretir (N+1 yok).
+    // Keyset (seek) sayfalama: OFFSET yerine "id > :after" ile index uzerinden ilerliyoruz.
+    @Query("select " + PRODUCT_RESPONSE + PRODUCT_FROM + " where p.id > :after order by p.id")
+    List<ProductDtos.ProductResponse> findPage(@Param("after") Long after, Limit limit);
+
+    @Query("select " + PRODUCT_RESPONSE + PRODUCT_FROM
+            + " where c.id = :categoryId and p.id > :after order by p.id")
+    List<ProductDtos.ProductResponse> findPageByCategory(@Param("categoryId") Long categoryId, @Param("after") Long after, Limit limit);
+
+    // NDJSON export icin: DTO satirlari persistence context'e girmez, fetch size surucunun tamponunu sinirlar.
+    // Transaction icinde tuketilip kapatilmali.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + PRODUCT_RESPONSE + PRODUCT_FROM + " order by p.id")
+    Stream<ProductDtos.ProductResponse> streamAllResponses();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.minicommerceapi.minicommerce.dto.ProductDtos$ProductLabel(p.id, p.name, p.sku) from Product p")
+    Stream<ProductDtos.ProductLabel> streamLabels();
+
+    // Sira garanti degil; cagiran kendi sirasina gore dizer.
+    @Query("select " + PRODUCT_RESPONSE + PRODUCT_FROM + " where p.id in :ids")
+    List<ProductDtos.ProductResponse> findResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.minicommerceapi.minicommerce.dto.ProductDtos$ProductStock(p.id, p.stock) from Product p where p.id in :ids")
+    List<ProductDtos.ProductStock> findStocks(@Param("ids") Collection<Long> ids);
+
+    // ProductService.get bunu transaction disinda cagirir; readOnly ile okuma havuzuna gider
+    @Transactional(readOnly = true)
+    @Query("select " + PRODUCT_RESPONSE + PRODUCT_FROM + " where p.id = :id")
+    Optional<ProductDtos.ProductResponse> findResponseById(@Param("id") Long id);
+
+    // Kosullu atomik stok dusumu: 1 = dusuldu, 0 = urun yok ya da stok yetersiz.
+    // Version artirilir (versioned), ayni urunun es zamanli patch'i optimistic kontrolde kalir.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Product p set p.stock = p.stock - :qty where p.id = :id and p.stock >= :qty")
+    int decrementStock(@Param("id") Long id, @Param("qty") int qty);
+
+    // Sure dolan rezervasyonlarin stogu geri konur; flush/clear ve version artisi decrementStock ile ayni
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Product p set p.stock = p.stock + :qty where p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("qty") int qty);
 }
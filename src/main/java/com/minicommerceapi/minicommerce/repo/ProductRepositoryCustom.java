@@ -0,0 +1,15 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Filtreye uyan (null: hepsi) bir keyset sayfasi. after: onceki sayfanin son satiri (null: ilk sayfa);
+    // fiyat siralamasinda konum cursor'daki fiyattir, urunun guncel fiyati degil
+    List<ProductDtos.ProductResponse> findResponses(Specification<Product> filter, ProductDtos.ProductSort sort,
+                                                    ProductDtos.ProductCursor after, int limit);
+}
@@ -0,0 +1,72 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.ProductRatingStats;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductDtos.ProductResponse> findResponses(Specification<Product> filter, ProductDtos.ProductSort sort,
+                                                           ProductDtos.ProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductDtos.ProductResponse> query = cb.createQuery(ProductDtos.ProductResponse.class);
+        Root<Product> p = query.from(Product.class);
+        Join<Product, Category> c = p.join("category");
+        // ProductRepository.PRODUCT_FROM ile ayni: puan ozeti left join ile ayni SELECT'te gelir
+        Join<Product, ProductRatingStats> s = p.join(ProductRatingStats.class, JoinType.LEFT);
+        s.on(cb.equal(s.get("productId"), p.get("id")));
+
+        Expression<Long> reviewCount = s.get("reviewCount");
+        query.select(cb.construct(ProductDtos.ProductResponse.class,
+                p.get("id"), p.get("name"), p.get("sku"), p.get("price"), p.get("stock"),
+                c.get("id"), c.get("name"),
+                cb.quot(s.<Long>get("ratingSum").as(Double.class), reviewCount).as(Double.class),
+                cb.coalesce(reviewCount, 0L)));
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter != null) {
+            where.add(filter.toPredicate(p, query, cb));
+        }
+        if (after != null) {
+            where.add(seek(cb, p, sort, after));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        Path<BigDecimal> price = p.get("price");
+        Path<Long> id = p.get("id");
+        query.orderBy(switch (sort) {
+            case ID -> List.of(cb.asc(id));
+            case PRICE_ASC -> List.of(cb.asc(price), cb.asc(id));
+            case PRICE_DESC -> List.of(cb.desc(price), cb.asc(id));
+        });
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // Siralamada cursor'dan sonraki satirlar; fiyat esitliginde id ile ayrilir
+    private static Predicate seek(CriteriaBuilder cb, Root<Product> p, ProductDtos.ProductSort sort,
+                                  ProductDtos.ProductCursor after) {
+        Path<Long> id = p.get("id");
+        if (sort == ProductDtos.ProductSort.ID) {
+            return cb.greaterThan(id, after.id());
+        }
+        Path<BigDecimal> price = p.get("price");
+        Predicate beyond = (sort == ProductDtos.ProductSort.PRICE_ASC)
+                ? cb.greaterThan(price, after.price())
+                : cb.lessThan(price, after.price());
+        return cb.or(beyond, cb.and(cb.equal(price, after.price()), cb.greaterThan(id, after.id())));
+    }
+}
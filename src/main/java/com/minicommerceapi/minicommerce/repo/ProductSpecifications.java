@@ -0,0 +1,56 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+// Kategori FK uzerinden karsilastirilir: join eklenmez, idx_products_category_price kullanilabilir.
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+        // utility class
+    }
+
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), min);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), max);
+    }
+
+    // true: stock > 0, false: stokta yok
+    public static Specification<Product> inStock(boolean inStock) {
+        return (root, query, cb) -> inStock
+                ? cb.greaterThan(root.get("stock"), 0)
+                : cb.lessThanOrEqualTo(root.get("stock"), 0);
+    }
+
+    // Hicbir filtre yoksa null
+    public static Specification<Product> matching(ProductDtos.ProductFilter filter) {
+        Specification<Product> spec = null;
+        if (filter.categoryId() != null) {
+            spec = and(spec, inCategory(filter.categoryId()));
+        }
+        if (filter.minPrice() != null) {
+            spec = and(spec, priceAtLeast(filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            spec = and(spec, priceAtMost(filter.maxPrice()));
+        }
+        if (filter.inStock() != null) {
+            spec = and(spec, inStock(filter.inStock()));
+        }
+        return spec;
+    }
+
+    private static Specification<Product> and(Specification<Product> left, Specification<Product> right) {
+        return left == null ? right : left.and(right);
+    }
+}
@@ -0,0 +1,47 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Reservation;
+import com.minicommerceapi.minicommerce.domain.ReservationStatus;
+import com.minicommerceapi.minicommerce.dto.ReservationDtos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    // Tek rezervasyon: kullanici, kalemler ve urunler tek sorguda.
+    @Override
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    Optional<Reservation> findById(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.minicommerceapi.minicommerce.dto.ReservationDtos$ReservationDeadline(r.id, r.expiresAt)"
+            + " from Reservation r where r.status = :status")
+    Stream<ReservationDtos.ReservationDeadline> streamDeadlines(@Param("status") ReservationStatus status);
+
+    @Query("select r.id from Reservation r where r.id in :ids and r.status = :status and r.expiresAt <= :now")
+    List<Long> findDueIds(@Param("ids") Collection<Long> ids, @Param("status") ReservationStatus status,
+                          @Param("now") Instant now);
+
+    @Query("select new com.minicommerceapi.minicommerce.dto.ReservationDtos$HeldQuantity(i.product.id, sum(i.quantity))"
+            + " from ReservationItem i where i.reservation.id in :ids group by i.product.id")
+    List<ReservationDtos.HeldQuantity> sumQuantitiesByProduct(@Param("ids") Collection<Long> ids);
+
+    // Sadece hala from durumundaki satirlar guncellenir: ayni rezervasyonun tuketilmesi ve suresinin dolmasi ikisi birden basarili olamaz
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Reservation r set r.status = :to where r.id in :ids and r.status = :from"
+            + " and (:notExpiredAt is null or r.expiresAt > :notExpiredAt)")
+    int transition(@Param("ids") Collection<Long> ids, @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to, @Param("notExpiredAt") Instant notExpiredAt);
+}
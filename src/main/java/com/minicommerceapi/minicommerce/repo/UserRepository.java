@@ -2,10 +2,15 @@ package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select u.email from User u")
+    List<String> findAllEmails();
 }
@@ -0,0 +1,22 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+
+// Category yazilinca transaction CategorySnapshot yenilemesi icin isaretlenir. Hibernate, Spring bean container'i ile olusturur.
+public class CategoryChangeListener {
+    private final CategorySnapshot categorySnapshot;
+
+    public CategoryChangeListener(CategorySnapshot categorySnapshot) {
+        this.categorySnapshot = categorySnapshot;
+    }
+
+    @PrePersist
+    @PreUpdate
+    @PreRemove
+    void onChange(Category category) {
+        categorySnapshot.markChanged();
+    }
+}
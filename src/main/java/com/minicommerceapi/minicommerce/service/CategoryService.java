@@ -16,10 +16,15 @@ import java.util.List;
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final CategorySnapshot categorySnapshot;
 
-    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository, ProductCache productCache,
+                           CategorySnapshot categorySnapshot) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.categorySnapshot = categorySnapshot;
     }
 
     @Transactional
@@ -31,22 +36,52 @@ public class CategoryService {
         return toResponse(c);
     }
 
+    // Okumalar CategorySnapshot'tan yapilir; snapshot kullanilamiyorsa (ilk yukleme oncesi ya da
+    // ayni transaction'da kategori degistiyse) veritabanina dusulur.
     @Transactional(readOnly = true)
     public List<CategoryDtos.CategoryResponse> list() {
+        CategorySnapshot.Snapshot s = categorySnapshot.current();
+        if (s != null) {
+            return s.all();
+        }
         return categoryRepository.findAll().stream().map(this::toResponse).toList();
     }
 
     @Transactional(readOnly = true)
     public CategoryDtos.CategoryResponse get(Long id) {
+        CategorySnapshot.Snapshot s = categorySnapshot.current();
+        if (s != null) {
+            CategoryDtos.CategoryResponse c = s.byId().get(id);
+            if (c == null) {
+                throw new NotFoundException("Category not found");
+            }
+            return c;
+        }
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
         return toResponse(c);
     }
 
+    @Transactional(readOnly = true)
+    public CategoryDtos.CategoryResponse getBySlug(String slug) {
+        CategorySnapshot.Snapshot s = categorySnapshot.current();
+        if (s != null) {
+            CategoryDtos.CategoryResponse c = s.bySlug().get(slug);
+            if (c == null) {
+                throw new NotFoundException("Category not found");
+            }
+            return c;
+        }
+        Category c = categoryRepository.findBySlug(slug).orElseThrow(() -> new NotFoundException("Category not found"));
+        return toResponse(c);
+    }
+
     @Transactional
     public CategoryDtos.CategoryResponse update(Long id, CategoryDtos.UpdateCategoryRequest req) {
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
         c.setName(req.name().trim());
         c.setSlug(SlugUtil.slugify(req.name()));
+        categorySnapshot.markChanged(); // @PreUpdate ancak flush'ta calisir; bu transaction'daki okumalar icin hemen isaretle
+        productCache.clear(); // cache'teki urunler categoryName tasiyor
         return toResponse(c);
     }
 
@@ -59,7 +94,7 @@ public class CategoryService {
     public void delete(Long id) {
         // Not: Kategoride urun varsa silmeyi engelliyoruz (409 Conflict).
 
-        if (!categoryRepository.existsById(id)) {
+        if (categorySnapshot.find(id).isEmpty() && !categoryRepository.existsById(id)) {
             throw new NotFoundException("Category not found");
         }
         if (productRepository.existsByCategoryId(id)) {
@@ -0,0 +1,94 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Tum kategorilerin bellekte degismez kopyasi (id ve slug ile). Kategori yazan transaction commit olunca yenilenir;
+// o transaction icinde ve ilk yuklemeden once current() null doner, cagiran veritabanina gider.
+@Component
+public class CategorySnapshot {
+
+    public record Snapshot(List<CategoryDtos.CategoryResponse> all,
+                           Map<Long, CategoryDtos.CategoryResponse> byId,
+                           Map<String, CategoryDtos.CategoryResponse> bySlug) {}
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readTransaction;
+    private final Object changedKey = new Object(); // transaction-local "kategori degisti" isareti
+    private volatile Snapshot current;
+
+    public CategorySnapshot(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // afterCommit icinde calisir: commit edilmis transaction'a katilmamak icin ayri transaction
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public Snapshot current() {
+        if (TransactionSynchronizationManager.hasResource(changedKey)) {
+            return null;
+        }
+        return current;
+    }
+
+    public Optional<CategoryDtos.CategoryResponse> find(Long id) {
+        Snapshot s = current();
+        return s == null ? Optional.empty() : Optional.ofNullable(s.byId().get(id));
+    }
+
+    public void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(changedKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(changedKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(changedKey);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    // synchronized: yavas bir reload daha yeni olanin ustune yazmasin
+    public synchronized void refresh() {
+        List<Category> categories = readTransaction.execute(status -> categoryRepository.findAll(Sort.by("id")));
+        Map<Long, CategoryDtos.CategoryResponse> byId = new LinkedHashMap<>();
+        Map<String, CategoryDtos.CategoryResponse> bySlug = new LinkedHashMap<>();
+        for (Category c : categories) {
+            CategoryDtos.CategoryResponse r = new CategoryDtos.CategoryResponse(c.getId(), c.getName(), c.getSlug());
+            byId.put(r.id(), r);
+            bySlug.put(r.slug(), r);
+        }
+        current = new Snapshot(List.copyOf(byId.values()), Map.copyOf(byId), Map.copyOf(bySlug));
+    }
+}
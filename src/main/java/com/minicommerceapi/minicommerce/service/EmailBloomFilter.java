@@ -0,0 +1,134 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Email'ler icin Bloom filter: email kesin yeniyse existsByEmail sorgusu atlanir.
+// Silinen email'ler sayilir, oran esigi gecince filtre users tablosundan yeniden kurulur. Son soz uk_users_email'de.
+@Component
+public class EmailBloomFilter {
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readTransaction;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final double rebuildStaleRatio;
+
+    private volatile BloomFilter filter;   // null: henuz yuklenmedi, her kontrol DB'ye gider
+    private volatile BloomFilter building; // rebuild sirasinda gelen eklemeler buraya da yazilir
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${minicommerce.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${minicommerce.users.email-filter.fpp:0.01}") double fpp,
+                            @Value("${minicommerce.users.email-filter.rebuild-stale-ratio:0.2}") double rebuildStaleRatio) {
+        this.userRepository = userRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.rebuildStaleRatio = rebuildStaleRatio;
+
+        this.absent = Counter.builder("users.email_filter.checks").tag("result", "absent").register(meterRegistry);
+        this.maybe = Counter.builder("users.email_filter.checks").tag("result", "maybe").register(meterRegistry);
+        this.falsePositives = Counter.builder("users.email_filter.false_positives").register(meterRegistry);
+        Gauge.builder("users.email_filter.false_positive_rate", this, EmailBloomFilter::falsePositiveRate)
+                .description("Share of 'maybe' answers that the database did not confirm")
+                .register(meterRegistry);
+        Gauge.builder("users.email_filter.expected_fpp", this, f -> f.filter == null ? 1.0 : f.filter.expectedFpp())
+                .register(meterRegistry);
+    }
+
+    public boolean definitelyAbsent(String email) {
+        BloomFilter f = filter;
+        if (f == null) {
+            return false;
+        }
+        if (f.mightContain(email)) {
+            maybe.increment();
+            return false;
+        }
+        absent.increment();
+        return true;
+    }
+
+    public void recordLookup(boolean exists) {
+        if (!exists && filter != null) {
+            falsePositives.increment();
+        }
+    }
+
+    // Satir yazilmadan once cagrilmali (commit edilmis bir email filtrede hep olsun)
+    public void add(String email) {
+        BloomFilter f = filter;
+        if (f != null) {
+            f.add(email);
+        }
+        BloomFilter b = building;
+        if (b != null) {
+            b.add(email);
+        }
+        entries.incrementAndGet();
+    }
+
+    // Email filtrede kalir, bir sonraki rebuild'e kadar
+    public void removed() {
+        stale.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${minicommerce.users.email-filter.rebuild-check-interval:PT10M}")
+    public void rebuildIfStale() {
+        long s = stale.get();
+        if (s > 0 && s >= rebuildStaleRatio * Math.max(1, entries.get())) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(expectedInsertions, fpp);
+        building = next;
+        try {
+            List<String> emails = readTransaction.execute(status -> userRepository.findAllEmails());
+            emails.forEach(next::add);
+            filter = next;
+            entries.set(emails.size());
+            stale.set(0);
+            log.info("Email Bloom filter rebuilt with {} entries", emails.size());
+        } finally {
+            building = null;
+        }
+    }
+
+    double falsePositiveRate() {
+        double m = maybe.count();
+        return m == 0 ? 0.0 : falsePositives.count() / m;
+    }
+}
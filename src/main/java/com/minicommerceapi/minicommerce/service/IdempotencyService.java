@@ -0,0 +1,178 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerceapi.minicommerce.domain.IdempotencyRecord;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+
+// Ayni Idempotency-Key ile tekrar gelen POST /api/orders icin: anahtar siparisle ayni transaction'da yazilir,
+// tekrarda saklanan cevap doner. Ilk istek surerken gelen kopya onu bekler.
+@Service
+public class IdempotencyService {
+    public static final int MAX_KEY_LENGTH = 100;
+
+    public record Result(OrderDtos.OrderResponse order, boolean replayed) {}
+
+    private record Entry(Long orderId, String requestHash, OrderDtos.OrderResponse response) {}
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderService orderService;
+    private final TransactionRetry transactionRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<String, Entry> recent;
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              OrderService orderService,
+                              TransactionRetry transactionRetry,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${minicommerce.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${minicommerce.idempotency.max-size:100000}") long maxSize,
+                              @Value("${minicommerce.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderService = orderService;
+        this.transactionRetry = transactionRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Result createOrder(String key, OrderDtos.CreateOrderRequest req) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(req);
+
+        while (true) {
+            Entry known = lookup(key);
+            if (known != null) {
+                return replay(known, requestHash);
+            }
+
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                awaitFirst(running);
+                continue; // ilk istek bitti: sonucu kayitliysa replay, hata aldiysa bu istek kendisi calisir
+            }
+
+            try {
+                return execute(key, requestHash, req);
+            } finally {
+                inFlight.remove(key, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minicommerce.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl)));
+    }
+
+    private Result execute(String key, String requestHash, OrderDtos.CreateOrderRequest req) {
+        // Ayni anda calisan baska bir instance once kaydettiyse ilk istegin sonucu doner.
+        Entry known = lookup(key);
+        if (known != null) {
+            return replay(known, requestHash);
+        }
+        try {
+            // Anahtarsiz checkout ile ayni tekrar deneme: siparis ve kayit ayni transaction'da, birlikte tekrar denenir
+            OrderDtos.OrderResponse created = transactionRetry.execute("order.create", () -> {
+                // Suresi dolmus ama henuz purge edilmemis kayit anahtari bloklamasin; siparisten once silinir
+                idempotencyRecordRepository.deleteExpiredKey(key, Instant.now().minus(ttl));
+                OrderDtos.OrderResponse order = orderService.createInCurrentTransaction(req);
+                IdempotencyRecord r = new IdempotencyRecord();
+                r.setKey(key);
+                r.setRequestHash(requestHash);
+                r.setOrderId(order.id());
+                r.setResponse(objectMapper.writeValueAsString(order));
+                idempotencyRecordRepository.saveAndFlush(r);
+                return order;
+            });
+            recent.put(key, new Entry(created.id(), requestHash, created)); // transaction burada commit olmustur
+            return new Result(created, false);
+        } catch (DataIntegrityViolationException e) {
+            Entry winner = lookup(key);
+            if (winner == null) {
+                throw e;
+            }
+            return replay(winner, requestHash);
+        }
+    }
+
+    private Entry lookup(String key) {
+        Entry cached = recent.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return idempotencyRecordRepository.findByKey(key)
+                .filter(r -> r.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                .map(r -> new Entry(r.getOrderId(), r.getRequestHash(),
+                        objectMapper.readValue(r.getResponse(), OrderDtos.OrderResponse.class)))
+                .orElse(null);
+    }
+
+    private Result replay(Entry entry, String requestHash) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used with a different request");
+        }
+        return new Result(entry.response(), true);
+    }
+
+    private void awaitFirst(CompletableFuture<Void> running) {
+        try {
+            running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            // mine.complete(null) disinda tamamlanmaz; yine de ilk istegin hatasi bu istegi etkilemez
+        }
+    }
+
+    static String fingerprint(OrderDtos.CreateOrderRequest req) {
+        StringBuilder sb = new StringBuilder().append(req.userId());
+        for (OrderDtos.CreateOrderItem item : req.items()) {
+            sb.append('|').append(item.productId()).append('x').append(item.quantity());
+        }
+        if (req.reservationId() != null) {
+            sb.append("|r").append(req.reservationId());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
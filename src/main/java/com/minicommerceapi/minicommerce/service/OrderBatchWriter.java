@@ -0,0 +1,192 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.BlockIdGenerator;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Siparis olusturma icin group commit (minicommerce.orders.group-commit.enabled=true).
+// Tek yazar thread'i istekleri kucuk batch'ler halinde tek transaction'da yazar; her siparis kendi savepoint'inde,
+// hatali siparis tek basina geri alinir.
+@Component
+@ConditionalOnProperty(name = "minicommerce.orders.group-commit.enabled", havingValue = "true")
+public class OrderBatchWriter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchWriter.class);
+
+    private record Pending(OrderDtos.CreateOrderRequest req, CompletableFuture<OrderDtos.OrderResponse> result) {}
+
+    private record Outcome(Pending pending, OrderDtos.OrderResponse response, RuntimeException error) {}
+
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final Duration waitTimeout;
+    private final BlockingQueue<Pending> queue;
+    private volatile Thread writer;
+
+    public OrderBatchWriter(OrderService orderService,
+                            TransactionTemplate transactionTemplate,
+                            EntityManager entityManager,
+                            @Value("${minicommerce.orders.group-commit.batch-size:64}") int batchSize,
+                            @Value("${minicommerce.orders.group-commit.max-linger:5ms}") Duration maxLinger,
+                            @Value("${minicommerce.orders.group-commit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${minicommerce.orders.group-commit.wait-timeout:30s}") Duration waitTimeout) {
+        this.orderService = orderService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.waitTimeout = waitTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Batch commit olana kadar bekler; siparisin kendi hatasini tekrar firlatir
+    public OrderDtos.OrderResponse create(OrderDtos.CreateOrderRequest req) {
+        if (!isRunning()) {
+            throw new IllegalStateException("Order batch writer is not running");
+        }
+        Pending pending = new Pending(req, new CompletableFuture<>());
+        try {
+            queue.put(pending); // kuyruk doluysa bekler (backpressure)
+            if (!isRunning()) {
+                // Kontrol ile put arasinda stop() calistiysa kuyrugu bosaltacak yazar yok
+                failQueued();
+            }
+            return pending.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new ConflictException("Order queue is busy, please retry"); // hic yazilmadi, tekrar denenebilir
+            }
+            throw new IllegalStateException("Timed out waiting for order batch", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void start() {
+        Thread t = new Thread(this::drain, "order-batch-writer");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread t = writer;
+        writer = null;
+        if (t != null) {
+            t.interrupt();
+        }
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(p -> p.result().completeExceptionally(new IllegalStateException("Order batch writer stopped")));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    private void drain() {
+        try {
+            drainUntilStopped();
+        } finally {
+            if (writer == null) {
+                failQueued(); // yazar bittikten sonra kuyrukta kalan hicbir istek sonsuza kadar beklemesin
+            }
+        }
+    }
+
+    private void drainUntilStopped() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (writer == Thread.currentThread()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < batchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                batch.forEach(p -> p.result().completeExceptionally(new IllegalStateException("Order batch writer stopped")));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void writeBatch(List<Pending> batch) {
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> {
+                List<Outcome> results = new ArrayList<>(batch.size());
+                for (Pending p : batch) {
+                    Object savepoint = status.createSavepoint();
+                    try {
+                        // createInCurrentTransaction donmeden flush eder: savepoint birakilirken yazilar DB'de
+                        OrderDtos.OrderResponse response = orderService.createInCurrentTransaction(p.req());
+                        status.releaseSavepoint(savepoint);
+                        results.add(new Outcome(p, response, null));
+                    } catch (RuntimeException e) {
+                        status.rollbackToSavepoint(savepoint);
+                        entityManager.clear();
+                        // id blogu rezervasyonu da geri alinmis olabilir
+                        BlockIdGenerator.discardPendingBlocks(
+                                entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class));
+                        results.add(new Outcome(p, null, e));
+                    }
+                }
+                return results;
+            });
+        } catch (RuntimeException e) {
+            // Toplu commit basarisiz: her siparis kendi transaction'i ile tekrar denenir.
+            log.warn("Order batch of {} failed to commit, falling back to per-order transactions", batch.size(), e);
+            for (Pending p : batch) {
+                try {
+                    p.result().complete(orderService.create(p.req()));
+                } catch (RuntimeException single) {
+                    p.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (Outcome o : outcomes) {
+            if (o.error() == null) {
+                o.pending().result().complete(o.response());
+            } else {
+                o.pending().result().completeExceptionally(o.error());
+            }
+        }
+    }
+}
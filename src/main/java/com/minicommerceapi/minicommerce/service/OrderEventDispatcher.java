@@ -0,0 +1,84 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Outbox'taki olaylari subscriber'lara dagitir; her kabul edilen batch'ten sonra offset yazilir.
+// Hata atan subscriber bir sonraki turu bekler, digerlerini durdurmaz.
+@Component
+public class OrderEventDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    private final OrderOutbox orderOutbox;
+    private final List<OrderEventSubscriber> subscribers;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Map<String, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    public OrderEventDispatcher(OrderOutbox orderOutbox,
+                                List<OrderEventSubscriber> subscribers,
+                                MeterRegistry meterRegistry,
+                                @Value("${minicommerce.orders.outbox.batch-size:200}") int batchSize) {
+        this.orderOutbox = orderOutbox;
+        this.subscribers = subscribers;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.min(OrderOutbox.MAX_PAGE_SIZE, Math.max(1, batchSize));
+        for (OrderEventSubscriber s : subscribers) {
+            AtomicLong behind = new AtomicLong();
+            lag.put(s.name(), behind);
+            Gauge.builder("orders.outbox.lag", behind, AtomicLong::get).tag("subscriber", s.name()).register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minicommerce.orders.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long newest = orderOutbox.lastEventId();
+        for (OrderEventSubscriber s : subscribers) {
+            long offset = dispatch(s);
+            lag.get(s.name()).set(Math.max(0, newest - offset));
+        }
+    }
+
+    // Yetisene ya da hata alana kadar; sonundaki offset'i doner
+    long dispatch(OrderEventSubscriber subscriber) {
+        long after = orderOutbox.offset(subscriber.name());
+        while (true) {
+            List<OrderDtos.OrderEvent> batch = orderOutbox.read(after, batchSize).items();
+            if (batch.isEmpty()) {
+                return after;
+            }
+            try {
+                subscriber.onEvents(batch);
+            } catch (RuntimeException e) {
+                counter("orders.outbox.failures", subscriber).increment();
+                log.warn("Order event subscriber {} failed after event {}, retrying on next poll", subscriber.name(), after, e);
+                return after;
+            }
+            after = batch.get(batch.size() - 1).id();
+            orderOutbox.commitOffset(subscriber.name(), after);
+            counter("orders.outbox.dispatched", subscriber).increment(batch.size());
+            if (batch.size() < batchSize) {
+                return after;
+            }
+        }
+    }
+
+    private Counter counter(String name, OrderEventSubscriber subscriber) {
+        return Counter.builder(name).tag("subscriber", subscriber.name()).register(meterRegistry);
+    }
+}
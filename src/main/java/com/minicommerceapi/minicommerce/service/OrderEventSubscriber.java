@@ -0,0 +1,15 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+
+import java.util.List;
+
+// Outbox'in uygulama ici tuketicisi; OrderEventDispatcher tarafindan id sirasiyla beslenir.
+// onEvents hata atarsa ayni batch bir sonraki turda tekrar gelir (en az bir kez).
+public interface OrderEventSubscriber {
+
+    // Offset anahtari olarak kullanilir (en fazla 100 karakter)
+    String name();
+
+    void onEvents(List<OrderDtos.OrderEvent> events);
+}
@@ -0,0 +1,109 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.OrderEventConsumer;
+import com.minicommerceapi.minicommerce.domain.OrderEventType;
+import com.minicommerceapi.minicommerce.domain.OrderOutboxEvent;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.OrderEventConsumerRepository;
+import com.minicommerceapi.minicommerce.repo.OrderOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Siparis degisiklikleri icin transactional outbox: olay, degisikligi yapan transaction'da yazilir.
+// Teslimat en az bir kez; tuketiciler konumlarini order_event_consumers'ta tutar, olay id'si dedupe icin kullanilabilir.
+@Service
+public class OrderOutbox {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final Logger log = LoggerFactory.getLogger(OrderOutbox.class);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderEventConsumerRepository consumerRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+
+    public OrderOutbox(OrderOutboxRepository outboxRepository,
+                       OrderEventConsumerRepository consumerRepository,
+                       ObjectMapper objectMapper,
+                       @Value("${minicommerce.orders.outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.consumerRepository = consumerRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+    }
+
+    // Degisikligi yapan transaction icinde calismali
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderEventType type, OrderDtos.OrderResponse order) {
+        OrderOutboxEvent e = new OrderOutboxEvent();
+        e.setOrderId(order.id());
+        e.setType(type);
+        e.setPayload(objectMapper.writeValueAsString(order));
+        outboxRepository.save(e);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDtos.OrderEventPage read(long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<OrderDtos.OrderEvent> events = outboxRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit)).stream()
+                .map(e -> new OrderDtos.OrderEvent(e.getId(), e.getOrderId(), e.getType().name(), e.getCreatedAt(), e.getPayload()))
+                .toList();
+        String nextCursor = events.isEmpty() ? null : events.get(events.size() - 1).id().toString();
+        return new OrderDtos.OrderEventPage(events, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public long lastEventId() {
+        return outboxRepository.findMaxId();
+    }
+
+    @Transactional(readOnly = true)
+    public long offset(String consumer) {
+        return consumerRepository.findById(consumer).map(OrderEventConsumer::getLastEventId).orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDtos.OrderEventConsumerResponse consumer(String consumer) {
+        return consumerRepository.findById(consumer)
+                .map(this::toResponse)
+                .orElse(new OrderDtos.OrderEventConsumerResponse(consumer, 0L, null));
+    }
+
+    // Konum geri de alinabilir (saklanan olaylari tekrar okumak icin)
+    @Transactional
+    public OrderDtos.OrderEventConsumerResponse commitOffset(String consumer, long lastEventId) {
+        if (consumer == null || consumer.isBlank() || consumer.length() > 100) {
+            throw new BadRequestException("consumer must be 1-100 characters");
+        }
+        OrderEventConsumer c = consumerRepository.findById(consumer).orElseGet(() -> new OrderEventConsumer(consumer));
+        c.setLastEventId(lastEventId);
+        return toResponse(consumerRepository.save(c));
+    }
+
+    @Scheduled(fixedDelayString = "${minicommerce.orders.outbox.purge-interval:PT1H}")
+    @Transactional
+    public void purge() {
+        int removed = outboxRepository.deleteOlderThan(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("Purged {} order outbox events older than {}", removed, retention);
+        }
+    }
+
+    private OrderDtos.OrderEventConsumerResponse toResponse(OrderEventConsumer c) {
+        return new OrderDtos.OrderEventConsumerResponse(c.getName(), c.getLastEventId(), c.getUpdatedAt());
+    }
+}
@@ -8,54 +8,138 @@ import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.OrderRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OrderService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    // Ilk sayfa icin ust sinir: tum siparislerden daha yeni bir zaman
+    private static final Instant FIRST_PAGE_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-
-    public OrderService(OrderRepository orderRepository, UserRepository userRepository, ProductRepository productRepository) {
+    private final ProductCache productCache;
+    private final TransactionRetry transactionRetry;
+    private final StockLedger stockLedger;
+    private final ReservationService reservationService;
+    private final OrderOutbox orderOutbox;
+    private final SalesReportService salesReportService;
+
+    public OrderService(OrderRepository orderRepository, UserRepository userRepository, ProductRepository productRepository,
+                        ProductCache productCache, TransactionRetry transactionRetry, StockLedger stockLedger,
+                        ReservationService reservationService, OrderOutbox orderOutbox,
+                        SalesReportService salesReportService) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.transactionRetry = transactionRetry;
+        this.stockLedger = stockLedger;
+        this.reservationService = reservationService;
+        this.orderOutbox = orderOutbox;
+        this.salesReportService = salesReportService;
     }
 
-    @Transactional
+    // Yarisi kaybederse (optimistic lock / SQLite busy) transaction sinirli sayida tekrar denenir, sonra 409.
     public OrderDtos.OrderResponse create(OrderDtos.CreateOrderRequest req) {
+        // Transaction onemli: siparis olusurken hata alinirsa stok dusumunun rollback olmasi gerekir.
+        return transactionRetry.execute("order.create", () -> createInCurrentTransaction(req));
+    }
+
+    // Kendi transaction'i yok: cagiran transaction icinde olmali. Hata firlatirsa cagiran bu siparisin
+    // DB yazilarini geri almalidir (rollback veya OrderBatchWriter'daki gibi savepoint'e donus); StockLedger
+    // rezervasyonu burada birakilir. Basarili donuste tum yazilar flush edilmistir, ledger rezervasyonu
+    // dis transaction'in sonucunu izler. reservationId varsa stok rezervasyonda alinmistir, sadece tuketilir.
+    public OrderDtos.OrderResponse createInCurrentTransaction(OrderDtos.CreateOrderRequest req) {
+        Map<Long, Integer> quantities = quantities(req.items());
+
+        if (req.reservationId() != null) {
+            reservationService.consumeInCurrentTransaction(req.reservationId(), req.userId(), quantities);
+            OrderDtos.OrderResponse response = placeOrder(req, quantities, false);
+            orderRepository.flush();
+            return response;
+        }
 
-        // Transactional onemli: siparis olusurken hata alinirsa stok dusumunun rollback olmasi gerekir.
+        // Ledger once: tukenmis urun icin yazma kilidi beklenmeden reddedilir
+        StockLedger.Reservation reservation = stockLedger.reserve(quantities);
+        try {
+            OrderDtos.OrderResponse response = placeOrder(req, quantities, true);
+            // Flush commit hook'undan once: flush hatasi savepoint'e donuse yol acar, onaylanmis rezervasyona degil
+            orderRepository.flush();
+            reservation.completeWithTransaction();
+            return response;
+        } catch (RuntimeException e) {
+            // Savepoint'e geri donuldugunde (OrderBatchWriter) dis transaction yine commit olabilir; burada birakilir
+            reservation.release();
+            throw e;
+        }
+    }
+
+    // Ayni urunun satirlari birlestirilir (ilk gorulme sirasi korunur).
+    static Map<Long, Integer> quantities(List<OrderDtos.CreateOrderItem> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderDtos.CreateOrderItem itemReq : items) {
+            if (itemReq.quantity() <= 0) {
+                throw new BadRequestException("Quantity must be >= 1");
+            }
+            quantities.merge(itemReq.productId(), itemReq.quantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private OrderDtos.OrderResponse placeOrder(OrderDtos.CreateOrderRequest req, Map<Long, Integer> quantities,
+                                               boolean takeStock) {
         User user = userRepository.findById(req.userId()).orElseThrow(() -> new NotFoundException("User not found"));
 
         Order order = new Order();
         order.setUser(user);
         order.setStatus(OrderStatus.CREATED);
 
-        BigDecimal total = BigDecimal.ZERO;
+        // Tum urunler tek bir IN sorgusu ile yuklenir (satir basina findById yok).
+        Map<Long, Product> products = new HashMap<>();
+        for (Product p : productRepository.findAllById(quantities.keySet())) {
+            products.put(p.getId(), p);
+        }
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new NotFoundException("Product not found: " + productId);
+            }
+        }
 
-        for (OrderDtos.CreateOrderItem itemReq : req.items()) {
-            Product product = productRepository.findById(itemReq.productId())
-                    .orElseThrow(() -> new NotFoundException("Product not found: " + itemReq.productId()));
+        BigDecimal total = BigDecimal.ZERO;
 
-            if (itemReq.quantity() <= 0) {
-                throw new BadRequestException("Quantity must be >= 1");
-            }
-            if (product.getStock() < itemReq.quantity()) {
-                throw new BadRequestException("Insufficient stock for product " + product.getId());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            Product product = products.get(productId);
+
+            // Stok dusumu tek bir kosullu UPDATE ile yapilir (read-modify-write yok, oversell olmaz).
+            // Etkilenen satir yoksa stok yetersizdir; transaction rollback ile onceki dusumler de geri alinir.
+            if (takeStock) {
+                if (productRepository.decrementStock(productId, quantity) == 0) {
+                    stockLedger.reportDrift(productId);
+                    throw new BadRequestException("Insufficient stock for product " + productId);
+                }
+                productCache.evict(productId);
             }
 
-            product.setStock(product.getStock() - itemReq.quantity()); // stok dusumu (basit senaryo)
-
             OrderItem item = new OrderItem();
             item.setProduct(product);
-            item.setQuantity(itemReq.quantity());
+            item.setCategoryId(product.getCategory().getId());
+            item.setQuantity(quantity);
             item.setUnitPrice(product.getPrice());
-            item.setLineTotal(product.getPrice().multiply(BigDecimal.valueOf(itemReq.quantity())));
+            item.setLineTotal(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
 
             total = total.add(item.getLineTotal());
             order.addItem(item);
@@ -63,13 +147,49 @@ public class OrderService {
 
         order.setTotal(total);
         Order saved = orderRepository.save(order);
+        salesReportService.orderPlaced(saved);
 
-        return toResponse(saved);
+        OrderDtos.OrderResponse response = toResponse(saved);
+        orderOutbox.append(OrderEventType.ORDER_CREATED, response);
+        return response;
     }
 
+    // Keyset sayfalama, en yeni once. Cursor: <createdAt epoch ms>:<id>.
     @Transactional(readOnly = true)
-    public List<OrderDtos.OrderResponse> list() {
-        return orderRepository.findAll().stream().map(this::toResponse).toList();
+    public OrderDtos.OrderPage list(Long userId, String status, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderStatus statusFilter = (status == null) ? null : parseStatus(status);
+
+        Instant cursorCreatedAt = FIRST_PAGE_CREATED_AT;
+        long cursorId = Long.MAX_VALUE;
+        if (after != null) {
+            String[] parts = after.split(":");
+            if (parts.length != 2) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            try {
+                cursorCreatedAt = Instant.ofEpochMilli(Long.parseLong(parts[0]));
+                cursorId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        Limit fetch = Limit.of(limit + 1);
+        List<Order> orders = (userId == null)
+                ? orderRepository.findPage(statusFilter, cursorCreatedAt, cursorId, fetch)
+                : orderRepository.findUserPage(userId, statusFilter, cursorCreatedAt, cursorId, fetch);
+
+        boolean hasMore = orders.size() > limit;
+        List<Order> page = hasMore ? orders.subList(0, limit) : orders;
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = last.getCreatedAt().toEpochMilli() + ":" + last.getId();
+        }
+        return new OrderDtos.OrderPage(page.stream().map(this::toResponse).toList(), nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -83,12 +203,7 @@ public class OrderService {
         // Basit bir durum makinasi: CREATED -> PAID veya CANCELLED. Sonrasi terminal.
         Order order = orderRepository.findById(id).orElseThrow(() -> new NotFoundException("Order not found"));
 
-        OrderStatus newStatus;
-        try {
-            newStatus = OrderStatus.valueOf(req.status().trim().toUpperCase());
-        } catch (Exception e) {
-            throw new BadRequestException("Invalid status. Allowed: CREATED, PAID, CANCELLED");
-        }
+        OrderStatus newStatus = parseStatus(req.status());
 
         if (order.getStatus() != OrderStatus.CREATED) {
             throw new ConflictException("Order status cannot be changed after it is " + order.getStatus());
@@ -98,15 +213,25 @@ public class OrderService {
         }
 
         order.setStatus(newStatus);
-        return toResponse(order);
+        salesReportService.statusChanged(order);
+        OrderDtos.OrderResponse response = toResponse(order);
+        orderOutbox.append(OrderEventType.ORDER_STATUS_CHANGED, response);
+        return response;
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new NotFoundException("Order not found");
+        Order order = orderRepository.findById(id).orElseThrow(() -> new NotFoundException("Order not found"));
+        salesReportService.orderDeleted(order);
+        orderRepository.delete(order);
+    }
+
+    private OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status.trim().toUpperCase());
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid status. Allowed: CREATED, PAID, CANCELLED");
         }
-        orderRepository.deleteById(id);
     }
 
     private OrderDtos.OrderResponse toResponse(Order o) {
@@ -0,0 +1,80 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Urun id'sine gore boyutu ve TTL'i sinirli cache. Degerler sadece okuyan transaction commit olunca yazilir;
+// eviction ile yarisan bir okuyucu stamp() ile yakalanir, boylece eski satir yerine gecen yazmadan uzun yasamaz.
+@Component
+public class ProductCache {
+    private final Cache<Long, ProductDtos.ProductResponse> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(@Value("${minicommerce.product-cache.max-size:10000}") long maxSize,
+                        @Value("${minicommerce.product-cache.ttl:5m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductDtos.ProductResponse get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    // Veritabanindan okumadan once alinir, put'a verilir
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(ProductDtos.ProductResponse product, long stamp) {
+        TransactionHooks.afterCommit(() -> {
+            if (invalidations.get() == stamp) {
+                cache.put(product.id(), product);
+            }
+        });
+    }
+
+    // Hemen ve transaction bittiginde tekrar
+    public void evict(Long id) {
+        doEvict(id);
+        TransactionHooks.afterCompletion(() -> doEvict(id));
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        ids.forEach(this::evict);
+    }
+
+    public void clear() {
+        doClear();
+        TransactionHooks.afterCompletion(this::doClear);
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void doEvict(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    private void doClear() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
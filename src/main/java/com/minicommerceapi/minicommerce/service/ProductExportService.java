@@ -0,0 +1,44 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// NDJSON export: satirlar okundukca yazilir, listede toplanmaz; bellek katalog buyuklugune gore artmaz.
+@Service
+public class ProductExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // out flush edilir ama kapatilmaz
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long count = 0;
+        try (Stream<ProductDtos.ProductResponse> products = productRepository.streamAllResponses()) {
+            // forEach yerine iterator: IOException lambda disina tasinabilsin
+            for (Iterator<ProductDtos.ProductResponse> it = products.iterator(); it.hasNext(); ) {
+                buffered.write(objectMapper.writeValueAsBytes(it.next()));
+                buffered.write('\n');
+                count++;
+            }
+        }
+        buffered.flush();
+        return count;
+    }
+}
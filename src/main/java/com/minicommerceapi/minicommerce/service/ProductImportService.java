@@ -0,0 +1,327 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Toplu urun import'u (CSV veya NDJSON): satir satir okunur, chunk-size'lik parcalar halinde ayri transaction'larda yazilir.
+// Hatali satirlar satir numarasiyla raporlanir; bellekte sadece mevcut chunk ve en fazla max-errors hata tutulur.
+// Yazilamayan chunk import'u yarida kesmez: satirlari raporda hata olarak gorunur.
+@Service
+public class ProductImportService {
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    private record Row(long line, ProductDtos.CreateProductRequest req) {}
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "sku", "price", "stock", "categoryid");
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final SkuSuggestIndex skuSuggestIndex;
+    private final TransactionRetry transactionRetry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ProductImportService(ProductRepository productRepository,
+                                CategoryRepository categoryRepository,
+                                ProductSearchIndex productSearchIndex,
+                                SkuSuggestIndex skuSuggestIndex,
+                                TransactionRetry transactionRetry,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${minicommerce.products.import.chunk-size:500}") int chunkSize,
+                                @Value("${minicommerce.products.import.max-errors:1000}") int maxErrors) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.skuSuggestIndex = skuSuggestIndex;
+        this.transactionRetry = transactionRetry;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    private final class Import {
+        final Map<Long, Boolean> categoryExists = new HashMap<>();
+        final List<ProductDtos.BulkImportError> errors = new ArrayList<>();
+        long rows;
+        long created;
+        long failed;
+        boolean errorsTruncated;
+
+        void fail(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductDtos.BulkImportError(line, sku, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        ProductDtos.BulkImportReport report() {
+            return new ProductDtos.BulkImportReport(rows, created, failed, List.copyOf(errors), errorsTruncated);
+        }
+    }
+
+    public ProductDtos.BulkImportReport importProducts(InputStream body, Format format) throws IOException {
+        Import imp = new Import();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int[] columns = null;
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = csvHeader(line);
+                    continue;
+                }
+                imp.rows++;
+                ProductDtos.CreateProductRequest req;
+                try {
+                    req = (format == Format.CSV) ? fromCsv(line, columns) : fromJson(line);
+                } catch (IllegalArgumentException e) {
+                    imp.fail(lineNo, null, e.getMessage());
+                    continue;
+                }
+                String invalid = validate(req);
+                if (invalid != null) {
+                    imp.fail(lineNo, req.sku(), invalid);
+                    continue;
+                }
+                chunk.add(new Row(lineNo, req));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, imp);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, imp);
+        }
+        return imp.report();
+    }
+
+    private void writeChunk(List<Row> chunk, Import imp) {
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        List<ProductDtos.BulkImportError> rejected = new ArrayList<>();
+        try {
+            // Tekrar denenebilir: sonuclar yerel listelerde toplanir, rapora sadece commit'ten sonra yazilir
+            transactionRetry.execute("products.import", () -> {
+                accepted.clear();
+                rejected.clear();
+                resolveCategories(chunk, imp);
+                Set<String> existing = new HashSet<>(productRepository.findExistingSkus(
+                        chunk.stream().map(r -> r.req().sku().trim()).collect(Collectors.toSet())));
+                Set<String> seen = new HashSet<>();
+                for (Row r : chunk) {
+                    String sku = r.req().sku().trim();
+                    if (!imp.categoryExists.get(r.req().categoryId())) {
+                        rejected.add(new ProductDtos.BulkImportError(r.line(), sku, "Category not found"));
+                    } else if (existing.contains(sku) || !seen.add(sku)) {
+                        rejected.add(new ProductDtos.BulkImportError(r.line(), sku, "SKU already exists"));
+                    } else {
+                        accepted.add(r);
+                    }
+                }
+                insert(accepted);
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Kontrol ile yazma arasinda ayni SKU baska yerden eklendiyse: satir satir tekrar dene, hatali satiri raporla.
+            rejected.forEach(err -> imp.fail(err.line(), err.sku(), err.message()));
+            accepted.forEach(r -> writeRow(r, imp));
+            return;
+        } catch (RuntimeException e) {
+            // Tekrar denemeler tukendi (409) veya beklenmeyen DB hatasi: chunk geri alindi, import sonraki chunk'la devam eder
+            log.warn("Product import chunk at line {} failed, reporting its {} rows", chunk.get(0).line(), chunk.size(), e);
+            String message = (e instanceof ConflictException) ? "Database busy, please retry" : "Row could not be saved";
+            chunk.forEach(r -> imp.fail(r.line(), r.req().sku().trim(), message));
+            return;
+        }
+        rejected.forEach(err -> imp.fail(err.line(), err.sku(), err.message()));
+        imp.created += accepted.size();
+    }
+
+    private void writeRow(Row r, Import imp) {
+        try {
+            transactionRetry.execute("products.import", () -> {
+                insert(List.of(r));
+                return null;
+            });
+            imp.created++;
+        } catch (DataIntegrityViolationException e) {
+            imp.fail(r.line(), r.req().sku().trim(), rowError(e, r, imp));
+        } catch (ConflictException e) {
+            imp.fail(r.line(), r.req().sku().trim(), "Database busy, please retry");
+        } catch (RuntimeException e) {
+            log.warn("Product import row at line {} failed", r.line(), e);
+            imp.fail(r.line(), r.req().sku().trim(), "Row could not be saved");
+        }
+    }
+
+    // Mesaji ihlal edilen kisittan cikar: kategori import sirasinda silindiyse FK hatasi gelir
+    private static String rowError(DataIntegrityViolationException e, Row r, Import imp) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (cause.contains("FOREIGN KEY")) {
+            imp.categoryExists.put(r.req().categoryId(), false); // sonraki chunk'lar da bu kategoriyi atlasin
+            return "Category not found";
+        }
+        if (cause.contains("UNIQUE") || cause.contains("uk_products_sku")) {
+            return "SKU already exists";
+        }
+        return "Row could not be saved";
+    }
+
+    private void insert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Product> products = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            ProductDtos.CreateProductRequest req = r.req();
+            Product p = new Product();
+            p.setName(req.name().trim());
+            p.setSku(req.sku().trim());
+            p.setPrice(req.price());
+            p.setStock(req.stock());
+            p.setCategory(categoryRepository.getReferenceById(req.categoryId()));
+            products.add(p);
+        }
+        productRepository.saveAll(products);
+        productRepository.flush(); // hata commit'te degil burada gorunsun
+        for (Product p : products) {
+            productSearchIndex.indexAfterCommit(p.getId(), p.getName(), p.getSku());
+            skuSuggestIndex.putAfterCommit(p.getId(), p.getSku());
+        }
+    }
+
+    // Bu import'ta ilk kez gorulen kategori id'leri tek sorguyla bakilir ve hatirlanir
+    private void resolveCategories(List<Row> chunk, Import imp) {
+        Set<Long> unknown = chunk.stream()
+                .map(r -> r.req().categoryId())
+                .filter(id -> !imp.categoryExists.containsKey(id))
+                .collect(Collectors.toSet());
+        if (unknown.isEmpty()) {
+            return;
+        }
+        unknown.forEach(id -> imp.categoryExists.put(id, false));
+        for (Category c : categoryRepository.findAllById(unknown)) {
+            imp.categoryExists.put(c.getId(), true);
+        }
+    }
+
+    private String validate(ProductDtos.CreateProductRequest req) {
+        Set<ConstraintViolation<ProductDtos.CreateProductRequest>> violations = validator.validate(req);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private ProductDtos.CreateProductRequest fromJson(String line) {
+        ProductDtos.CreateProductRequest req;
+        try {
+            req = objectMapper.readValue(line, ProductDtos.CreateProductRequest.class);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (req == null) { // "null" satiri
+            throw new IllegalArgumentException("Row must be a JSON object");
+        }
+        return req;
+    }
+
+    private static int[] csvHeader(String line) {
+        List<String> header = splitCsv(line).stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = header.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new BadRequestException("CSV header must contain name,sku,price,stock,categoryId");
+            }
+        }
+        return columns;
+    }
+
+    private static ProductDtos.CreateProductRequest fromCsv(String line, int[] columns) {
+        List<String> cells = splitCsv(line);
+        String[] v = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            v[i] = columns[i] < cells.size() ? cells.get(columns[i]).trim() : "";
+        }
+        try {
+            return new ProductDtos.CreateProductRequest(
+                    v[0],
+                    v[1],
+                    v[2].isEmpty() ? null : new BigDecimal(v[2]),
+                    Integer.parseInt(v[3]),
+                    v[4].isEmpty() ? null : Long.valueOf(v[4]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in price, stock or categoryId");
+        }
+    }
+
+    // Tirnakli alanlar ve "" kacisi desteklenir (alan icinde satir sonu yok)
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(ch);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
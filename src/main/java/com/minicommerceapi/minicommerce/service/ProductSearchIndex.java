@@ -0,0 +1,215 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.util.SlugUtil;
+import com.minicommerceapi.minicommerce.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+// Urun aramasi icin bellekte inverted index (isim token'lari) + SKU prefix icin sirali set.
+// Siralama: tam SKU, SKU sirasiyla prefix'ler, sonra daha az token'li isimler; esitlikte id. Sadece id doner, satirlar DB'den okunur.
+@Component
+public class ProductSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // total en fazla offset+limit+1'e kadar sayilir; totalIsLowerBound ise daha fazla eslesme vardir
+    public record Hits(List<Long> ids, int total, boolean totalIsLowerBound) {}
+
+    private record Doc(String skuKey, String[] tokens) {}
+
+    // Ayni SKU anahtari (kucuk harf) birden fazla urunde olabilir: uk_products_sku buyuk/kucuk harf ayirir
+    private record SkuKey(String key, long id) {}
+
+    private record Posting(int tokenCount, long id) {}
+
+    private static final Comparator<SkuKey> SKU_ORDER = Comparator.comparing(SkuKey::key).thenComparingLong(SkuKey::id);
+
+    // Isim eslesmelerinin siralamasi: daha az token'li (daha siki) once, esitlikte id
+    private static final Comparator<Posting> POSTING_ORDER = Comparator.comparingInt(Posting::tokenCount)
+            .thenComparingLong(Posting::id);
+
+    // ConcurrentSkipListSet.size() tum listeyi gezer; boyut ayrica tutulur (sadece monitor altinda degisir)
+    private static final class PostingList {
+        final ConcurrentSkipListSet<Posting> entries = new ConcurrentSkipListSet<>(POSTING_ORDER);
+        volatile int size;
+    }
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<SkuKey> skus = new ConcurrentSkipListSet<>(SKU_ORDER);
+    // Yukleme surerken commit edilen guncellemeler: yuklenen (daha eski) satir bunlarin ustune yazilmaz
+    private final Set<Long> updatedDuringLoad = new HashSet<>();
+    private boolean loading;
+
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductDtos.ProductLabel> labels = productRepository.streamLabels()) {
+                    labels.forEach(this::putLoaded);
+                }
+            });
+        } finally {
+            synchronized (this) {
+                loading = false;
+                updatedDuringLoad.clear();
+            }
+        }
+        log.info("Product search index built with {} products and {} name tokens", docs.size(), postings.size());
+    }
+
+    public void indexAfterCommit(Long id, String name, String sku) {
+        TransactionHooks.afterCommit(() -> put(id, name, sku));
+    }
+
+    public void removeAfterCommit(Long id) {
+        TransactionHooks.afterCommit(() -> remove(id));
+    }
+
+    public synchronized void put(Long id, String name, String sku) {
+        if (loading) {
+            updatedDuringLoad.add(id);
+        }
+        index(id, name, sku);
+    }
+
+    private synchronized void putLoaded(ProductDtos.ProductLabel l) {
+        if (!updatedDuringLoad.contains(l.id())) {
+            index(l.id(), l.name(), l.sku());
+        }
+    }
+
+    private void index(Long id, String name, String sku) {
+        unindex(id);
+        Doc doc = new Doc(skuKey(sku), tokens(name));
+        Posting posting = new Posting(doc.tokens().length, id);
+        for (String token : doc.tokens()) {
+            PostingList list = postings.computeIfAbsent(token, t -> new PostingList());
+            if (list.entries.add(posting)) {
+                list.size++;
+            }
+        }
+        skus.add(new SkuKey(doc.skuKey(), id));
+        docs.put(id, doc);
+    }
+
+    public synchronized void remove(Long id) {
+        if (loading) {
+            updatedDuringLoad.add(id);
+        }
+        unindex(id);
+    }
+
+    private void unindex(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        Posting posting = new Posting(doc.tokens().length, id);
+        for (String token : doc.tokens()) {
+            postings.computeIfPresent(token, (t, list) -> {
+                if (list.entries.remove(posting)) {
+                    list.size--;
+                }
+                return list.size == 0 ? null : list;
+            });
+        }
+        skus.remove(new SkuKey(doc.skuKey(), id));
+    }
+
+    public Hits search(String query, int offset, int limit) {
+        int wanted = offset + limit + 1; // bir fazlasi: sonraki sayfa var mi; offset ProductService'te sinirli
+        // Her katman siralama sirasiyla gezilir ve yeterli eslesme bulununca durulur: tum eslesmeler taranmaz
+        List<Long> hits = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+
+        String prefix = skuKey(query);
+        if (!prefix.isEmpty()) {
+            // Once tam SKU eslesmeleri (anahtar prefix'e esit oldugu icin en basta), sonra SKU sirasiyla prefix'ler
+            for (SkuKey k : skus.subSet(new SkuKey(prefix, Long.MIN_VALUE), true,
+                    new SkuKey(prefix + Character.MAX_VALUE, Long.MIN_VALUE), false)) {
+                if (hits.size() == wanted) {
+                    break;
+                }
+                if (seen.add(k.id())) {
+                    hits.add(k.id());
+                }
+            }
+        }
+
+        String[] terms = tokens(query);
+        if (hits.size() < wanted && terms.length > 0) {
+            List<PostingList> lists = new ArrayList<>(terms.length);
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    lists = List.of();
+                    break;
+                }
+                lists.add(list);
+            }
+            if (!lists.isEmpty()) {
+                // En kisa liste siralama sirasiyla gezilir, digerlerinde var mi diye bakilir (kesisim)
+                lists.sort(Comparator.comparingInt(l -> l.size));
+                for (Posting p : lists.get(0).entries) {
+                    if (hits.size() == wanted) {
+                        break;
+                    }
+                    if (!seen.contains(p.id()) && containedInAll(p, lists)) {
+                        hits.add(p.id());
+                    }
+                }
+            }
+        }
+
+        int from = Math.min(offset, hits.size());
+        int to = Math.min(offset + limit, hits.size());
+        return new Hits(List.copyOf(hits.subList(from, to)), hits.size(), hits.size() == wanted);
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    private static boolean containedInAll(Posting posting, List<PostingList> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).entries.contains(posting)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Slug ile ayni normalizasyon (aksanlar atilir, kucuk harf)
+    static String[] tokens(String text) {
+        String slug = SlugUtil.slugify(text);
+        return slug.isEmpty() ? new String[0] : Arrays.stream(slug.split("-")).distinct().toArray(String[]::new);
+    }
+
+    static String skuKey(String sku) {
+        return sku == null ? "" : sku.trim().toLowerCase(Locale.ROOT);
+    }
+}
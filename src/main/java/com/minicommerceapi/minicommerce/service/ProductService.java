@@ -2,74 +2,206 @@ package com.minicommerceapi.minicommerce.service;
 
 import com.minicommerceapi.minicommerce.domain.Category;
 import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.ProductRatingStats;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRatingStatsRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ProductSpecifications;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.util.*;
 
 @Service
 public class ProductService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SUGGESTIONS = 50;
+    // Arama sayfalamasi offset ile: derin sayfalar heap boyutunu buyuttugu icin sinirli
+    public static final int MAX_SEARCH_OFFSET = 10_000;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductCache productCache;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final CategorySnapshot categorySnapshot;
+    private final ProductSearchIndex productSearchIndex;
+    private final SkuSuggestIndex skuSuggestIndex;
+    private final TransactionRetry transactionRetry;
+    private final StockLedger stockLedger;
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, ProductCache productCache,
+                          ProductRatingStatsRepository productRatingStatsRepository, CategorySnapshot categorySnapshot,
+                          ProductSearchIndex productSearchIndex, SkuSuggestIndex skuSuggestIndex,
+                          TransactionRetry transactionRetry, StockLedger stockLedger) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.productCache = productCache;
+        this.productRatingStatsRepository = productRatingStatsRepository;
+        this.categorySnapshot = categorySnapshot;
+        this.productSearchIndex = productSearchIndex;
+        this.skuSuggestIndex = skuSuggestIndex;
+        this.transactionRetry = transactionRetry;
+        this.stockLedger = stockLedger;
     }
 
     @Transactional
     public ProductDtos.ProductResponse create(ProductDtos.CreateProductRequest req) {
 
-        // TODO: Stok guncelleme senaryosunda yarista durumlar olabilir; ileride optimistic locking dusunulebilir.
-
         if (productRepository.existsBySku(req.sku().trim())) {
             throw new ConflictException("SKU already exists");
         }
-        Category cat = categoryRepository.findById(req.categoryId())
-                .orElseThrow(() -> new NotFoundException("Category not found"));
+        Category cat = category(req.categoryId());
 
         Product p = new Product();
         p.setName(req.name().trim());
         p.setSku(req.sku().trim());
         p.setPrice(req.price());
 
-        // TODO: Ileride buraya stok kontrolu icin concurrency (Lock veya Optimistic Lock) mekanizmasi eklememiz gerekebilir.
-        // Simdilik senkronize olmayan basit kontrol yeterli.
+        // Eszamanli stok degisiklikleri Product.version ile yakalanir (bkz. patch ve OrderService.create).
         p.setStock(req.stock());
         p.setCategory(cat);
         p = productRepository.save(p);
-        return toResponse(p);
+        productSearchIndex.indexAfterCommit(p.getId(), p.getName(), p.getSku());
+        skuSuggestIndex.putAfterCommit(p.getId(), p.getSku());
+        return toResponse(p, null); // yeni urunun yorumu yok
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDtos.ProductResponse> list(Long categoryId) {
-        List<Product> products = (categoryId == null)
-                ? productRepository.findAll()
-                : productRepository.findByCategoryId(categoryId);
-        return products.stream().map(this::toResponse).toList();
+    public ProductDtos.ProductPage list(Long categoryId, Long after, int limit) {
+        return list(new ProductDtos.ProductFilter(categoryId, null, null, null), ProductDtos.ProductSort.ID,
+                (after == null) ? null : after.toString(), limit);
     }
 
+    // Keyset sayfalama: bir fazla satir cekilir, sonraki sayfa var mi ona gore karar verilir.
+    // Filtresiz/sadece kategorili id sirali liste sabit sorgulardan, digerleri Criteria ile gelir.
     @Transactional(readOnly = true)
+    public ProductDtos.ProductPage list(ProductDtos.ProductFilter filter, ProductDtos.ProductSort sort, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        ProductDtos.ProductCursor cursor = parseCursor(sort, after);
+        List<ProductDtos.ProductResponse> rows;
+        if (sort == ProductDtos.ProductSort.ID && filter.onlyCategory()) {
+            long afterId = (cursor == null) ? 0L : cursor.id();
+            Limit fetch = Limit.of(limit + 1);
+            rows = (filter.categoryId() == null)
+                    ? productRepository.findPage(afterId, fetch)
+                    : productRepository.findPageByCategory(filter.categoryId(), afterId, fetch);
+        } else {
+            rows = productRepository.findResponses(ProductSpecifications.matching(filter), sort, cursor, limit + 1);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<ProductDtos.ProductResponse> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ProductDtos.ProductResponse last = items.get(items.size() - 1);
+            nextCursor = (sort == ProductDtos.ProductSort.ID)
+                    ? last.id().toString()
+                    : last.price().toPlainString() + ":" + last.id();
+        }
+        return new ProductDtos.ProductPage(items, nextCursor);
+    }
+
+    // id siralamasinda cursor "<id>", fiyat siralamasinda "<fiyat>:<id>": konum cursor urununun
+    // silinmesinden veya fiyat degisikliginden etkilenmez
+    private static ProductDtos.ProductCursor parseCursor(ProductDtos.ProductSort sort, String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            if (sort == ProductDtos.ProductSort.ID) {
+                return new ProductDtos.ProductCursor(null, Long.parseLong(after));
+            }
+            int sep = after.lastIndexOf(':');
+            if (sep < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new ProductDtos.ProductCursor(new BigDecimal(after.substring(0, sep)), Long.parseLong(after.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // Once ProductCache; miss olursa tek projeksiyon sorgusu, commit'ten sonra cache'e yazilir.
     public ProductDtos.ProductResponse get(Long id) {
-        Product p = productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
-        return toResponse(p);
+        ProductDtos.ProductResponse cached = productCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = productCache.stamp();
+        ProductDtos.ProductResponse p = productRepository.findResponseById(id)
+                .orElseThrow(() -> new NotFoundException("Product not found"));
+        productCache.put(p, stamp);
+        return p;
     }
 
-    @Transactional
+    // Sepet/siparis sayfalari icin: cache'te olmayanlar tek IN sorgusuyla yuklenir.
+    @Transactional(readOnly = true)
+    public ProductDtos.BatchGetResponse getAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("ids must contain 1 to " + MAX_PAGE_SIZE + " product ids");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, ProductDtos.ProductResponse> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDtos.ProductResponse cached = productCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            long stamp = productCache.stamp();
+            for (ProductDtos.ProductResponse r : productRepository.findResponsesByIds(misses)) {
+                found.put(r.id(), r);
+                productCache.put(r, stamp);
+            }
+        }
+        List<ProductDtos.ProductResponse> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDtos.ProductResponse r = found.get(id);
+            if (r != null) {
+                items.add(r);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductDtos.BatchGetResponse(items, missing);
+    }
+
+    // Ayni urune es zamanli degisiklik @Version ile yakalanir, transaction bastan denenir.
     public ProductDtos.ProductResponse patch(Long id, ProductDtos.PatchProductRequest req) {
+        return transactionRetry.execute("product.patch", () -> doPatch(id, req));
+    }
+
+    private ProductDtos.ProductResponse doPatch(Long id, ProductDtos.PatchProductRequest req) {
         Product p = productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
+        productCache.evict(id);
 
         if (req.name() != null) p.setName(req.name().trim());
 
         if (req.sku() != null) {
             String sku = req.sku().trim();
-            if (!p.getSku().equals(sku) && productRepository.existsBySku(sku)) {
-                throw new ConflictException("SKU already exists");
+            if (!p.getSku().equals(sku)) {
+                if (productRepository.existsBySku(sku)) {
+                    throw new ConflictException("SKU already exists");
+                }
+                skuSuggestIndex.putAfterCommit(p.getId(), sku);
             }
             p.setSku(sku);
         }
@@ -77,13 +209,17 @@ public class ProductService {
         if (req.price() != null) p.setPrice(req.price());
 
         // Not: Stok guncellemeleri gercek hayatta kritik. Burada sadece ornek proje oldugu icin basit set yapiyoruz.
-        if (req.stock() != null) p.setStock(req.stock());
+        if (req.stock() != null) {
+            p.setStock(req.stock());
+            stockLedger.invalidateAfterCommit(id);
+        }
         if (req.categoryId() != null) {
-            Category cat = categoryRepository.findById(req.categoryId())
-                    .orElseThrow(() -> new NotFoundException("Category not found"));
-            p.setCategory(cat);
+            p.setCategory(category(req.categoryId()));
+        }
+        if (req.name() != null || req.sku() != null) {
+            productSearchIndex.indexAfterCommit(p.getId(), p.getName(), p.getSku());
         }
-        return toResponse(p);
+        return toResponse(p, productRatingStatsRepository.findById(id).orElse(null));
     }
 
     @Transactional
@@ -92,10 +228,62 @@ public class ProductService {
             throw new NotFoundException("Product not found");
         }
         productRepository.deleteById(id);
+        productRatingStatsRepository.deleteById(id);
+        productCache.evict(id);
+        productSearchIndex.removeAfterCommit(id);
+        skuSuggestIndex.removeAfterCommit(id);
+        stockLedger.invalidateAfterCommit(id);
+    }
+
+    public List<ProductDtos.SkuSuggestion> suggestSkus(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("skuPrefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return skuSuggestIndex.suggest(prefix, limit);
+    }
+
+    // Index sadece sayfadaki id'leri belirler; satirlar tek IN sorgusuyla gelir, fiyat/stok hep guncel.
+    @Transactional(readOnly = true)
+    public ProductDtos.ProductPage search(String q, int offset, int limit) {
+        if (q == null || q.isBlank()) {
+            throw new BadRequestException("q must not be blank");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+            throw new BadRequestException("offset must be between 0 and " + MAX_SEARCH_OFFSET);
+        }
+        ProductSearchIndex.Hits hits = productSearchIndex.search(q, offset, limit);
+        if (hits.ids().isEmpty()) {
+            return new ProductDtos.ProductPage(List.of(), null);
+        }
+        Map<Long, ProductDtos.ProductResponse> byId = new HashMap<>();
+        for (ProductDtos.ProductResponse r : productRepository.findResponsesByIds(hits.ids())) {
+            byId.put(r.id(), r);
+        }
+        List<ProductDtos.ProductResponse> items = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        String nextCursor = offset + limit < hits.total() ? Integer.toString(offset + limit) : null;
+        return new ProductDtos.ProductPage(items, nextCursor);
+    }
+
+    // Yazmalarda snapshot'a guvenilmez: kategori arada silinmis olabilir, FK hatasi yerine 404 donsun
+    private Category category(Long id) {
+        return categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
     }
 
-    public ProductDtos.ProductResponse toResponse(Product p) {
+    public ProductDtos.ProductResponse toResponse(Product p, ProductRatingStats stats) {
         Category c = p.getCategory();
+        // Kategori adi snapshot'tan okunur; boylece lazy referans initialize edilmez.
+        String categoryName = categorySnapshot.find(c.getId())
+                .map(CategoryDtos.CategoryResponse::name)
+                .orElseGet(c::getName);
         return new ProductDtos.ProductResponse(
                 p.getId(),
                 p.getName(),
@@ -103,7 +291,9 @@ public class ProductService {
                 p.getPrice(),
                 p.getStock(),
                 c.getId(),
-                c.getName()
+                categoryName,
+                stats == null ? null : stats.getAverage(),
+                stats == null ? 0 : stats.getReviewCount()
         );
     }
 }
@@ -0,0 +1,242 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.*;
+import com.minicommerceapi.minicommerce.dto.ReservationDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReservationRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.util.HashedTimerWheel;
+import com.minicommerceapi.minicommerce.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+// Sureli stok tutma: rezervasyon yapilinca stok hemen duser, siparis sonra sadece rezervasyonu tuketir.
+// Sure takibi bellekteki HashedTimerWheel ile; her tick'te dolanlar batch'ler halinde tek transaction'da iade edilir.
+// Tuketme ve sure dolumu HELD'den kosullu update ile yapilir, sadece biri kazanir.
+@Service
+public class ReservationService {
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    private final ReservationRepository reservationRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockLedger stockLedger;
+    private final TransactionRetry transactionRetry;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+    private final HashedTimerWheel<Long> wheel;
+    private final Duration defaultHold;
+    private final Duration maxHold;
+    private final Duration tick;
+    private final int expireBatchSize;
+
+    private final Counter created;
+    private final Counter consumed;
+    private final Counter expired;
+
+    public ReservationService(ReservationRepository reservationRepository,
+                              UserRepository userRepository,
+                              ProductRepository productRepository,
+                              ProductCache productCache,
+                              StockLedger stockLedger,
+                              TransactionRetry transactionRetry,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${minicommerce.reservations.default-hold:15m}") Duration defaultHold,
+                              @Value("${minicommerce.reservations.max-hold:60m}") Duration maxHold,
+                              @Value("${minicommerce.reservations.tick:PT1S}") Duration tick,
+                              @Value("${minicommerce.reservations.wheel-size:4096}") int wheelSize,
+                              @Value("${minicommerce.reservations.expire-batch-size:500}") int expireBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.stockLedger = stockLedger;
+        this.transactionRetry = transactionRetry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.wheel = new HashedTimerWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        this.defaultHold = defaultHold;
+        this.maxHold = maxHold;
+        this.tick = tick;
+        this.expireBatchSize = Math.max(1, expireBatchSize);
+
+        this.created = Counter.builder("reservations.created").register(meterRegistry);
+        this.consumed = Counter.builder("reservations.consumed").register(meterRegistry);
+        this.expired = Counter.builder("reservations.expired").register(meterRegistry);
+        Gauge.builder("reservations.timers", wheel, HashedTimerWheel::size).register(meterRegistry);
+    }
+
+    public ReservationDtos.ReservationResponse create(ReservationDtos.CreateReservationRequest req) {
+        Duration hold = (req.holdMinutes() == null) ? defaultHold : Duration.ofMinutes(req.holdMinutes());
+        if (hold.compareTo(maxHold) > 0) {
+            throw new BadRequestException("holdMinutes must be at most " + maxHold.toMinutes());
+        }
+        Map<Long, Integer> quantities = OrderService.quantities(req.items());
+        return transactionRetry.execute("reservation.create",
+                () -> holdInCurrentTransaction(req.userId(), quantities, Instant.now().plus(hold)));
+    }
+
+    private ReservationDtos.ReservationResponse holdInCurrentTransaction(Long userId, Map<Long, Integer> quantities,
+                                                                         Instant expiresAt) {
+        StockLedger.Reservation held = stockLedger.reserve(quantities);
+        try {
+            ReservationDtos.ReservationResponse response = hold(userId, quantities, expiresAt);
+            held.completeWithTransaction();
+            return response;
+        } catch (RuntimeException e) {
+            held.release();
+            throw e;
+        }
+    }
+
+    private ReservationDtos.ReservationResponse hold(Long userId, Map<Long, Integer> quantities, Instant expiresAt) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product p : productRepository.findAllById(quantities.keySet())) {
+            products.put(p.getId(), p);
+        }
+
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setExpiresAt(expiresAt);
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Long productId = line.getKey();
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new NotFoundException("Product not found: " + productId);
+            }
+            if (productRepository.decrementStock(productId, line.getValue()) == 0) {
+                stockLedger.reportDrift(productId);
+                throw new BadRequestException("Insufficient stock for product " + productId);
+            }
+            productCache.evict(productId);
+
+            ReservationItem item = new ReservationItem();
+            item.setProduct(product);
+            item.setQuantity(line.getValue());
+            reservation.addItem(item);
+        }
+
+        Reservation saved = reservationRepository.save(reservation);
+        Long id = saved.getId();
+        TransactionHooks.afterCommit(() -> {
+            wheel.schedule(id, expiresAt.toEpochMilli());
+            created.increment();
+        });
+        return toResponse(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationDtos.ReservationResponse get(Long id) {
+        return toResponse(reservationRepository.findById(id).orElseThrow(() -> new NotFoundException("Reservation not found")));
+    }
+
+    // Siparisin miktarlari rezerve edilenle birebir ayni olmali; stok zaten rezervasyonda dusuldu
+    public void consumeInCurrentTransaction(Long reservationId, Long userId, Map<Long, Integer> quantities) {
+        Reservation r = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new NotFoundException("Reservation not found"));
+        if (!r.getUser().getId().equals(userId)) {
+            throw new BadRequestException("Reservation belongs to another user");
+        }
+        if (r.getStatus() != ReservationStatus.HELD) {
+            throw new ConflictException("Reservation is " + r.getStatus());
+        }
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (ReservationItem item : r.getItems()) {
+            reserved.put(item.getProduct().getId(), item.getQuantity());
+        }
+        if (!reserved.equals(quantities)) {
+            throw new BadRequestException("Order items must match the reservation");
+        }
+        // Kosullu UPDATE: suresi bu arada dolduysa (veya expire job once davrandiysa) 0 satir etkilenir
+        if (reservationRepository.transition(List.of(reservationId), ReservationStatus.HELD,
+                ReservationStatus.CONSUMED, Instant.now()) == 0) {
+            throw new ConflictException("Reservation has expired");
+        }
+        TransactionHooks.afterCommit(consumed::increment);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = readTransaction.execute(status -> {
+            int[] n = {0};
+            try (Stream<ReservationDtos.ReservationDeadline> held =
+                         reservationRepository.streamDeadlines(ReservationStatus.HELD)) {
+                held.forEach(d -> {
+                    wheel.schedule(d.id(), d.expiresAt().toEpochMilli());
+                    n[0]++;
+                });
+            }
+            return n[0];
+        });
+        log.info("Reservation timer wheel loaded with {} held reservations", loaded);
+    }
+
+    @Scheduled(fixedDelayString = "${minicommerce.reservations.tick:PT1S}")
+    public void expireDue() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += expireBatchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + expireBatchSize));
+            try {
+                expire(batch);
+            } catch (RuntimeException e) {
+                // Ornegin SQLite mesgul: bir sonraki tick'te tekrar denenir
+                log.warn("Expiring {} reservations failed, retrying on the next tick", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + tick.toMillis();
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    // Hala HELD ve suresi dolmus olanlar iade edilir; kac tane oldugunu doner
+    int expire(List<Long> ids) {
+        Integer n = writeTransaction.execute(status -> {
+            List<Long> dueIds = reservationRepository.findDueIds(ids, ReservationStatus.HELD, Instant.now());
+            if (dueIds.isEmpty()) {
+                return 0; // tuketilmis rezervasyonlarin zamanlayicisi
+            }
+            List<ReservationDtos.HeldQuantity> held = reservationRepository.sumQuantitiesByProduct(dueIds);
+            reservationRepository.transition(dueIds, ReservationStatus.HELD, ReservationStatus.EXPIRED, null);
+            for (ReservationDtos.HeldQuantity h : held) {
+                productRepository.incrementStock(h.productId(), Math.toIntExact(h.quantity()));
+                productCache.evict(h.productId());
+                stockLedger.invalidateAfterCommit(h.productId());
+            }
+            return dueIds.size();
+        });
+        int count = (n == null) ? 0 : n;
+        expired.increment(count);
+        return count;
+    }
+
+    private ReservationDtos.ReservationResponse toResponse(Reservation r) {
+        List<ReservationDtos.ReservationItemResponse> items = r.getItems().stream()
+                .map(i -> new ReservationDtos.ReservationItemResponse(i.getProduct().getId(), i.getQuantity()))
+                .toList();
+        return new ReservationDtos.ReservationResponse(r.getId(), r.getUser().getId(), r.getStatus().name(),
+                r.getExpiresAt(), items);
+    }
+}
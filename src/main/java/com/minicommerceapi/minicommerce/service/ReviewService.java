@@ -5,9 +5,14 @@ import com.minicommerceapi.minicommerce.domain.Review;
 import com.minicommerceapi.minicommerce.domain.User;
 import com.minicommerceapi.minicommerce.dto.ReviewDtos;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.ProductRatingStatsRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import com.minicommerceapi.minicommerce.repo.ReviewRepository;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,14 +20,31 @@ import java.util.List;
 
 @Service
 public class ReviewService {
+    private static final Logger log = LoggerFactory.getLogger(ReviewService.class);
+
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final ProductCache productCache;
 
-    public ReviewService(ReviewRepository reviewRepository, ProductRepository productRepository, UserRepository userRepository) {
+    public ReviewService(ReviewRepository reviewRepository, ProductRepository productRepository, UserRepository userRepository,
+                         ProductRatingStatsRepository productRatingStatsRepository, ProductCache productCache) {
         this.reviewRepository = reviewRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
+        this.productRatingStatsRepository = productRatingStatsRepository;
+        this.productCache = productCache;
+    }
+
+    // product_rating_stats bossa mevcut yorumlardan doldur (ilk acilis)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillRatingStats() {
+        if (productRatingStatsRepository.count() == 0 && reviewRepository.count() > 0) {
+            int rows = productRatingStatsRepository.rebuildAll();
+            log.info("Backfilled rating stats for {} products", rows);
+        }
     }
 
     @Transactional
@@ -36,6 +58,7 @@ public class ReviewService {
         r.setRating(req.rating());
         r.setComment(req.comment());
         r = reviewRepository.save(r);
+        applyRatingDelta(product.getId(), 1, req.rating(), 0);
 
         return toResponse(r);
     }
@@ -58,7 +81,9 @@ public class ReviewService {
 @Transactional
 public ReviewDtos.ReviewResponse patch(Long id, ReviewDtos.PatchReviewRequest req) {
     Review r = reviewRepository.findById(id).orElseThrow(() -> new NotFoundException("Review not found"));
-    if (req.rating() != null) {
+    if (req.rating() != null && req.rating() != r.getRating()) {
+        // Yorum sayisi degismez; eski yildiz bir azalir, yenisi bir artar.
+        applyRatingDelta(r.getProduct().getId(), 0, req.rating(), r.getRating());
         r.setRating(req.rating());
     }
     if (req.comment() != null) {
@@ -69,10 +94,19 @@ public ReviewDtos.ReviewResponse patch(Long id, ReviewDtos.PatchReviewRequest re
 
     @Transactional
     public void delete(Long id) {
-        if (!reviewRepository.existsById(id)) {
-            throw new NotFoundException("Review not found");
-        }
-        reviewRepository.deleteById(id);
+        Review r = reviewRepository.findById(id).orElseThrow(() -> new NotFoundException("Review not found"));
+        reviewRepository.delete(r);
+        applyRatingDelta(r.getProduct().getId(), -1, 0, r.getRating());
+    }
+
+    // added/removed: 1..5 yildiz, eklenen/silinen yoksa 0
+    private void applyRatingDelta(Long productId, int countDelta, int added, int removed) {
+        long[] stars = new long[5];
+        if (added > 0) stars[added - 1]++;
+        if (removed > 0) stars[removed - 1]--;
+        productRatingStatsRepository.applyDelta(productId, countDelta, added - removed,
+                stars[0], stars[1], stars[2], stars[3], stars[4]);
+        productCache.evict(productId);
     }
 
     private ReviewDtos.ReviewResponse toResponse(Review r) {
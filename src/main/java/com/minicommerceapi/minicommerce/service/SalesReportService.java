@@ -0,0 +1,205 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Order;
+import com.minicommerceapi.minicommerce.domain.OrderItem;
+import com.minicommerceapi.minicommerce.domain.OrderStatus;
+import com.minicommerceapi.minicommerce.dto.SalesDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.DailyCategorySalesRepository;
+import com.minicommerceapi.minicommerce.repo.DailyProductSalesRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Gunluk satis ozetleri; siparisle ayni transaction'da guncellenir, raporlar sadece bu ozetleri toplar.
+// Gun, siparisin olusturuldugu UTC gun; sonradan odeme/iptal de o gune yazilir.
+@Service
+public class SalesReportService {
+    private static final Logger log = LoggerFactory.getLogger(SalesReportService.class);
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+    // Her gun ayri bir yazma transaction'i: cok genis bir aralik tek yazar kilidini uzun sure mesgul eder
+    public static final int MAX_REBUILD_DAYS = 366;
+
+    private final DailyProductSalesRepository productSalesRepository;
+    private final DailyCategorySalesRepository categorySalesRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate writeTransaction;
+
+    public SalesReportService(DailyProductSalesRepository productSalesRepository,
+                              DailyCategorySalesRepository categorySalesRepository,
+                              OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.productSalesRepository = productSalesRepository;
+        this.categorySalesRepository = categorySalesRepository;
+        this.orderRepository = orderRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Order order) {
+        apply(order, 1, 0);
+    }
+
+    // Siparis CREATED'dan order.getStatus()'a gectikten sonra cagrilir
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Order order) {
+        if (order.getStatus() == OrderStatus.PAID) {
+            apply(order, 0, 1);
+        } else if (order.getStatus() == OrderStatus.CANCELLED) {
+            apply(order, -1, 0);
+        }
+    }
+
+    // Siparis silinmeden once cagrilmali
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderDeleted(Order order) {
+        apply(order, order.getStatus() == OrderStatus.CANCELLED ? 0 : -1, order.getStatus() == OrderStatus.PAID ? -1 : 0);
+    }
+
+    private void apply(Order order, int sold, int paid) {
+        String day = day(order.getCreatedAt());
+        // Kalemler urun basina birlesik (OrderService.quantities); kategoriler burada toplanir
+        Map<Long, long[]> categories = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            long units = item.getQuantity();
+            long cents = cents(item.getLineTotal());
+            Long categoryId = categoryId(item);
+            productSalesRepository.applyDelta(day, item.getProduct().getId(),
+                    sold * units, sold * cents, paid * units, paid * cents);
+            long[] total = categories.computeIfAbsent(categoryId, id -> new long[2]);
+            total[0] += units;
+            total[1] += cents;
+        }
+        for (Map.Entry<Long, long[]> c : categories.entrySet()) {
+            long units = c.getValue()[0];
+            long cents = c.getValue()[1];
+            categorySalesRepository.applyDelta(day, c.getKey(), sold * units, sold * cents, paid * units, paid * cents);
+        }
+    }
+
+    // groupBy: day, month, product veya category; urun/kategori ciroya gore siralanip limit'te kesilir
+    @Transactional(readOnly = true)
+    public SalesDtos.SalesReport report(String from, String to, String groupBy, int limit) {
+        LocalDate fromDay = parseDay("from", from);
+        LocalDate toDay = parseDay("to", to);
+        checkRange(fromDay, toDay);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String group = (groupBy == null) ? "day" : groupBy.trim().toLowerCase(Locale.ROOT);
+        String fromKey = fromDay.toString();
+        String toKey = toDay.toString();
+        List<SalesDtos.SalesRow> rows = switch (group) {
+            case "day" -> categorySalesRepository.sumByDay(fromKey, toKey);
+            case "month" -> categorySalesRepository.sumByMonth(fromKey, toKey);
+            case "product" -> productSalesRepository.sumByProduct(fromKey, toKey, Limit.of(limit));
+            case "category" -> categorySalesRepository.sumByCategory(fromKey, toKey, Limit.of(limit));
+            default -> throw new BadRequestException("Invalid groupBy. Allowed: day, month, product, category");
+        };
+        return new SalesDtos.SalesReport(fromDay, toDay, group, rows);
+    }
+
+    // Kategori kalemde tutulur; category_id kolonundan onceki kalemler acilista doldurulana kadar urundeki kullanilir
+    private static Long categoryId(OrderItem item) {
+        return item.getCategoryId() != null ? item.getCategoryId() : item.getProduct().getCategory().getId();
+    }
+
+    public SalesDtos.RebuildResponse rebuild(String from, String to) {
+        LocalDate fromDay = parseDay("from", from);
+        LocalDate toDay = parseDay("to", to);
+        checkRange(fromDay, toDay);
+        if (ChronoUnit.DAYS.between(fromDay, toDay) >= MAX_REBUILD_DAYS) {
+            throw new BadRequestException("Rebuild range must not exceed " + MAX_REBUILD_DAYS + " days");
+        }
+        return rebuild(fromDay, toDay);
+    }
+
+    // Her gun icin ayri transaction: siparisler bir seferde sadece bir gunluk is icin bekler
+    private SalesDtos.RebuildResponse rebuild(LocalDate from, LocalDate to) {
+        int days = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            LocalDate day = d;
+            writeTransaction.executeWithoutResult(status -> rebuildDay(day));
+            days++;
+        }
+        return new SalesDtos.RebuildResponse(from, to, days);
+    }
+
+    private void rebuildDay(LocalDate day) {
+        String key = day.toString();
+        long fromMillis = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long toMillis = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        productSalesRepository.deleteDay(key);
+        categorySalesRepository.deleteDay(key);
+        productSalesRepository.rebuildDay(key, fromMillis, toMillis);
+        categorySalesRepository.rebuildDay(key, fromMillis, toMillis);
+    }
+
+    // Ozetler bossa mevcut siparislerden doldur (ilk acilis)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRollups() {
+        Integer filled = writeTransaction.execute(status -> orderRepository.fillMissingItemCategories());
+        if (filled != null && filled > 0) {
+            log.info("Filled the category of {} order items", filled);
+        }
+        if (categorySalesRepository.count() > 0) {
+            return;
+        }
+        Instant first = orderRepository.findFirstCreatedAt();
+        if (first == null) {
+            return;
+        }
+        // Sinir sadece siparislerin oldugu gunler: bos gunler icin transaction acilmaz
+        SalesDtos.RebuildResponse rebuilt = rebuild(LocalDate.ofInstant(first, ZoneOffset.UTC),
+                LocalDate.ofInstant(orderRepository.findLastCreatedAt(), ZoneOffset.UTC));
+        log.info("Backfilled sales rollups for {} days", rebuilt.days());
+    }
+
+    private static LocalDate parseDay(String name, String value) {
+        if (value == null) {
+            throw new BadRequestException(name + " is required");
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(name + " must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+    }
+
+    static String day(Instant createdAt) {
+        return LocalDate.ofInstant(createdAt, ZoneOffset.UTC).toString();
+    }
+
+    // Tutarlar kurus olarak tutulur: SQLite'ta toplamalar tam sayi ile kesin kalir
+    static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
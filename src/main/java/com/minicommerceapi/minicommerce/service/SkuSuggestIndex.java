@@ -0,0 +1,265 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+// SKU onerileri icin bellekte sirali index: buyuk, degismeyen bir base dizi + kucuk sirali delta.
+// Yazmalar delta'ya gider, silinenler base'de olu isaretlenir; esik asilinca ikisi yeni base'de birlesir.
+@Component
+public class SkuSuggestIndex {
+    private static final Logger log = LoggerFactory.getLogger(SkuSuggestIndex.class);
+
+    private record Key(String key, long id) {}
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::key).thenComparingLong(Key::id);
+
+    // idOrder/idSlot: urun id'sinden slot'u bulmak icin
+    private record Base(String[] keys, ProductDtos.SkuSuggestion[] entries, long[] idOrder, int[] idSlot, AtomicLongArray dead) {
+        int size() {
+            return keys.length;
+        }
+
+        boolean isDead(int slot) {
+            return (dead.get(slot >>> 6) & (1L << slot)) != 0;
+        }
+
+        boolean kill(long id) {
+            int i = Arrays.binarySearch(idOrder, id);
+            if (i < 0) {
+                return false;
+            }
+            int slot = idSlot[i];
+            long mask = 1L << slot;
+            return (dead.getAndAccumulate(slot >>> 6, mask, (a, b) -> a | b) & mask) == 0;
+        }
+    }
+
+    private record State(Base base, ConcurrentSkipListMap<Key, ProductDtos.SkuSuggestion> delta,
+                         Map<Long, Key> deltaKeys, int deadCount) {}
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+    private final int compactThreshold;
+    private volatile State state;
+    // Yukleme surerken silinen id'ler (tombstone): yuklenen base'de oldurulur, yoksa silinen SKU geri gelir
+    private final Set<Long> removedDuringLoad = new HashSet<>();
+    private boolean loading;
+
+    public SkuSuggestIndex(ProductRepository productRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${minicommerce.products.sku-suggest.compact-threshold:10000}") int compactThreshold) {
+        this.productRepository = productRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.compactThreshold = compactThreshold;
+        this.state = emptyState(build(List.of()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            loading = true;
+        }
+        List<Map.Entry<Key, ProductDtos.SkuSuggestion>> rows = new ArrayList<>();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductDtos.ProductLabel> labels = productRepository.streamLabels()) {
+                    labels.forEach(l -> rows.add(entry(l.id(), l.sku())));
+                }
+            });
+            Base loaded = build(rows);
+            synchronized (this) {
+                // Yukleme sirasinda commit edilen yazilar delta'da kalir; ayni id base'de de varsa delta kazanir.
+                // Silinenler tombstone'dan oldurulur.
+                State s = state;
+                Set<Long> stale = new HashSet<>(s.deltaKeys().keySet());
+                stale.addAll(removedDuringLoad);
+                int dead = 0;
+                for (Long id : stale) {
+                    if (loaded.kill(id)) {
+                        dead++;
+                    }
+                }
+                state = new State(loaded, s.delta(), s.deltaKeys(), dead);
+            }
+        } finally {
+            synchronized (this) {
+                loading = false;
+                removedDuringLoad.clear();
+            }
+        }
+        log.info("SKU suggest index built with {} entries", rows.size());
+    }
+
+    public void putAfterCommit(Long id, String sku) {
+        TransactionHooks.afterCommit(() -> put(id, sku));
+    }
+
+    public void removeAfterCommit(Long id) {
+        TransactionHooks.afterCommit(() -> remove(id));
+    }
+
+    public synchronized void put(Long id, String sku) {
+        removeLocked(id);
+        Map.Entry<Key, ProductDtos.SkuSuggestion> e = entry(id, sku);
+        State s = state;
+        s.deltaKeys().put(id, e.getKey());
+        s.delta().put(e.getKey(), e.getValue());
+        compactIfNeeded();
+    }
+
+    public synchronized void remove(Long id) {
+        removeLocked(id);
+        compactIfNeeded();
+    }
+
+    public List<ProductDtos.SkuSuggestion> suggest(String prefix, int limit) {
+        State s = state;
+        Base base = s.base();
+        String p = prefix.trim().toLowerCase(Locale.ROOT);
+        List<ProductDtos.SkuSuggestion> out = new ArrayList<>(Math.min(limit, 32));
+
+        int i = lowerBound(base.keys(), p);
+        Iterator<Map.Entry<Key, ProductDtos.SkuSuggestion>> d =
+                s.delta().tailMap(new Key(p, Long.MIN_VALUE)).entrySet().iterator();
+        Map.Entry<Key, ProductDtos.SkuSuggestion> de = nextWithPrefix(d, p);
+
+        while (out.size() < limit) {
+            while (i < base.size() && base.isDead(i)) {
+                i++;
+            }
+            boolean fromBase = i < base.size() && base.keys()[i].startsWith(p);
+            if (!fromBase && de == null) {
+                break;
+            }
+            if (fromBase && (de == null || compare(base.keys()[i], base.entries()[i].id(), de.getKey()) < 0)) {
+                out.add(base.entries()[i++]);
+            } else {
+                out.add(de.getValue());
+                de = nextWithPrefix(d, p);
+            }
+        }
+        return out;
+    }
+
+    public int size() {
+        State s = state;
+        return s.base().size() - s.deadCount() + s.delta().size();
+    }
+
+    private void removeLocked(Long id) {
+        if (loading) {
+            removedDuringLoad.add(id);
+        }
+        State s = state;
+        Key k = s.deltaKeys().remove(id);
+        if (k != null) {
+            s.delta().remove(k);
+        } else if (s.base().kill(id)) {
+            state = new State(s.base(), s.delta(), s.deltaKeys(), s.deadCount() + 1);
+        }
+    }
+
+    // Canli base slotlari ile delta'yi (ikisi de sirali) yeni bir base'de birlestirir
+    private void compactIfNeeded() {
+        State s = state;
+        // Yukleme surerken delta'ya dokunulmaz: load sonunda delta id'leri yeni base'de oldurulur
+        if (loading || s.delta().size() + s.deadCount() < compactThreshold) {
+            return;
+        }
+        Base base = s.base();
+        List<Map.Entry<Key, ProductDtos.SkuSuggestion>> merged = new ArrayList<>(base.size() - s.deadCount() + s.delta().size());
+        Iterator<Map.Entry<Key, ProductDtos.SkuSuggestion>> d = s.delta().entrySet().iterator();
+        Map.Entry<Key, ProductDtos.SkuSuggestion> de = d.hasNext() ? d.next() : null;
+        for (int i = 0; i < base.size(); i++) {
+            if (base.isDead(i)) {
+                continue;
+            }
+            while (de != null && compare(base.keys()[i], base.entries()[i].id(), de.getKey()) > 0) {
+                merged.add(de);
+                de = d.hasNext() ? d.next() : null;
+            }
+            merged.add(Map.entry(new Key(base.keys()[i], base.entries()[i].id()), base.entries()[i]));
+        }
+        while (de != null) {
+            merged.add(de);
+            de = d.hasNext() ? d.next() : null;
+        }
+        state = emptyState(build(merged));
+    }
+
+    private static Base build(List<Map.Entry<Key, ProductDtos.SkuSuggestion>> rows) {
+        List<Map.Entry<Key, ProductDtos.SkuSuggestion>> sorted = new ArrayList<>(rows);
+        sorted.sort(Map.Entry.comparingByKey(KEY_ORDER));
+        int n = sorted.size();
+        String[] keys = new String[n];
+        ProductDtos.SkuSuggestion[] entries = new ProductDtos.SkuSuggestion[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sorted.get(i).getKey().key();
+            entries[i] = sorted.get(i).getValue();
+        }
+        Integer[] slots = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, Comparator.comparingLong(slot -> entries[slot].id()));
+        long[] idOrder = new long[n];
+        int[] idSlot = new int[n];
+        for (int i = 0; i < n; i++) {
+            idSlot[i] = slots[i];
+            idOrder[i] = entries[slots[i]].id();
+        }
+        return new Base(keys, entries, idOrder, idSlot, new AtomicLongArray((n + 63) / 64 + 1));
+    }
+
+    private static State emptyState(Base base) {
+        return new State(base, new ConcurrentSkipListMap<>(KEY_ORDER), new ConcurrentHashMap<>(), 0);
+    }
+
+    private static Map.Entry<Key, ProductDtos.SkuSuggestion> entry(Long id, String sku) {
+        return Map.entry(new Key(sku.trim().toLowerCase(Locale.ROOT), id), new ProductDtos.SkuSuggestion(id, sku));
+    }
+
+    private static Map.Entry<Key, ProductDtos.SkuSuggestion> nextWithPrefix(
+            Iterator<Map.Entry<Key, ProductDtos.SkuSuggestion>> it, String prefix) {
+        if (!it.hasNext()) {
+            return null;
+        }
+        Map.Entry<Key, ProductDtos.SkuSuggestion> e = it.next();
+        return e.getKey().key().startsWith(prefix) ? e : null;
+    }
+
+    private static int compare(String key, long id, Key other) {
+        int c = key.compareTo(other.key());
+        return c != 0 ? c : Long.compare(id, other.id());
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,245 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Checkout icin bellekte kullanilabilir stok sayaclari: stogu bitmis istekler SQLite yazma kilidine girmeden reddedilir.
+// Asil otorite veritabanindaki stok dusumu; ledger sadece onunde bir filtre. Sapmalar duzenli reconcile ile duzeltilir.
+@Component
+public class StockLedger {
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+    private static final int RECONCILE_BATCH = 500;
+
+    static final class Entry {
+        final AtomicInteger available;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        Entry(int stock) {
+            this.available = new AtomicInteger(stock);
+        }
+    }
+
+    private record Line(Entry entry, int quantity) {}
+
+    // Bir checkout'un tuttugu stok; bir kez release() ya da confirm() edilir
+    public static final class Reservation {
+        public static final Reservation NONE = new Reservation(List.of());
+
+        private final List<Line> lines;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Reservation(List<Line> lines) {
+            this.lines = lines;
+        }
+
+        public void release() {
+            if (done.compareAndSet(false, true)) {
+                for (Line l : lines) {
+                    l.entry().available.addAndGet(l.quantity());
+                    l.entry().inFlight.addAndGet(-l.quantity());
+                }
+            }
+        }
+
+        public void confirm() {
+            if (done.compareAndSet(false, true)) {
+                for (Line l : lines) {
+                    l.entry().inFlight.addAndGet(-l.quantity());
+                }
+            }
+        }
+
+        // Commit'te onaylanir, rollback'te geri verilir; transaction yoksa hemen onaylanir
+        public void completeWithTransaction() {
+            if (lines.isEmpty()) {
+                return;
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                confirm();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        confirm();
+                    } else {
+                        release();
+                    }
+                }
+            });
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Seed okumasi sirasinda bir invalidate olduysa okunan deger eski olabilir; o entry eklenmez.
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile long lastDriftUnits;
+
+    private final Counter rejections;
+    private final Counter checkoutDrift;
+    private final Counter reconcileDrift;
+
+    public StockLedger(ProductRepository productRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${minicommerce.stock-ledger.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        // Kendi transaction'i: cagiran yazma transaction'inin icindeyken de sadece commit edilmis stok okunur
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+
+        this.rejections = Counter.builder("stock_ledger.rejections")
+                .description("Checkouts rejected by the ledger without touching the database")
+                .register(meterRegistry);
+        this.checkoutDrift = Counter.builder("stock_ledger.drift").tag("source", "checkout").register(meterRegistry);
+        this.reconcileDrift = Counter.builder("stock_ledger.drift").tag("source", "reconcile").register(meterRegistry);
+        Gauge.builder("stock_ledger.drift.units", this, l -> l.lastDriftUnits).register(meterRegistry);
+        Gauge.builder("stock_ledger.products", entries, Map::size).register(meterRegistry);
+    }
+
+    // Hepsi ya da hicbiri. Ledger'da olmayan urunlere veritabani karar verir.
+    public Reservation reserve(Map<Long, Integer> quantities) {
+        if (!enabled || quantities.isEmpty()) {
+            return Reservation.NONE;
+        }
+        List<Line> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> q : quantities.entrySet()) {
+            Entry e = entryFor(q.getKey());
+            if (e == null) {
+                continue;
+            }
+            if (!take(e, q.getValue())) {
+                new Reservation(taken).release();
+                rejections.increment();
+                throw new BadRequestException("Insufficient stock for product " + q.getKey());
+            }
+            taken.add(new Line(e, q.getValue()));
+        }
+        return taken.isEmpty() ? Reservation.NONE : new Reservation(taken);
+    }
+
+    // Veritabani ledger'in izin verdigi dusumu reddetti: sayac fazlaymis, bir sonraki kullanimda yeniden okunur
+    public void reportDrift(Long productId) {
+        if (entries.remove(productId) != null) {
+            checkoutDrift.increment();
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public void invalidateAfterCommit(Long productId) {
+        TransactionHooks.afterCommit(() -> {
+            invalidations.incrementAndGet();
+            entries.remove(productId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${minicommerce.stock-ledger.reconcile-interval:PT30S}")
+    public void reconcile() {
+        List<Long> ids = new ArrayList<>(entries.keySet());
+        long units = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH) {
+            units += reconcile(ids.subList(from, Math.min(ids.size(), from + RECONCILE_BATCH)));
+        }
+        lastDriftUnits = units;
+        if (units > 0) {
+            log.info("Stock ledger reconciled, {} units of drift corrected", units);
+        }
+    }
+
+    private long reconcile(List<Long> ids) {
+        // Yalnizca rezervasyonu olmayan entry'ler duzeltilir; devam eden checkout'lar DB'de henuz gorunmeyebilir
+        Map<Long, Entry> idle = new HashMap<>();
+        for (Long id : ids) {
+            Entry e = entries.get(id);
+            if (e != null && e.inFlight.get() == 0) {
+                idle.put(id, e);
+            }
+        }
+        if (idle.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> stock = new HashMap<>();
+        readTransaction.execute(status -> productRepository.findStocks(idle.keySet()))
+                .forEach(s -> stock.put(s.id(), s.stock()));
+
+        long units = 0;
+        for (Map.Entry<Long, Entry> i : idle.entrySet()) {
+            Entry e = i.getValue();
+            Integer db = stock.get(i.getKey());
+            if (db == null) {
+                entries.remove(i.getKey(), e); // urun silinmis
+                continue;
+            }
+            int current = e.available.get();
+            if (e.inFlight.get() != 0 || current == db) {
+                continue;
+            }
+            // Arada bir rezervasyon olduysa CAS tutmaz; bir sonraki turda tekrar bakilir
+            if (e.available.compareAndSet(current, db)) {
+                reconcileDrift.increment();
+                units += Math.abs(current - db);
+            }
+        }
+        return units;
+    }
+
+    public Integer available(Long productId) {
+        Entry e = entries.get(productId);
+        return e == null ? null : e.available.get();
+    }
+
+    private Entry entryFor(Long productId) {
+        Entry e = entries.get(productId);
+        if (e != null) {
+            return e;
+        }
+        long seen = invalidations.get();
+        List<ProductDtos.ProductStock> rows =
+                readTransaction.execute(status -> productRepository.findStocks(List.of(productId)));
+        if (rows.isEmpty() || invalidations.get() != seen) {
+            return null;
+        }
+        return entries.computeIfAbsent(productId, id -> new Entry(rows.get(0).stock()));
+    }
+
+    private static boolean take(Entry e, int quantity) {
+        while (true) {
+            int current = e.available.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (e.available.compareAndSet(current, current - quantity)) {
+                e.inFlight.addAndGet(quantity);
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Yarisi kaybeden transaction'i (optimistic lock, SQLite busy/locked) bastan tekrar calistirir;
+// denemeler arasinda jitter'li ustel bekleme, hepsi basarisiz olursa 409. Disarida transaction varsa tekrar denemez.
+@Component
+public class TransactionRetry {
+    private static final Logger log = LoggerFactory.getLogger(TransactionRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public TransactionRetry(PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${minicommerce.retry.max-attempts:4}") int maxAttempts,
+                            @Value("${minicommerce.retry.initial-backoff:10ms}") Duration initialBackoff,
+                            @Value("${minicommerce.retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        counter("transactions.retry.executions", operation).increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                counter("transactions.retry.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("transactions.retry.exhausted", operation).increment();
+                    log.debug("{} gave up after {} attempts", operation, attempt, e);
+                    throw new ConflictException("Concurrent update, please retry");
+                }
+                counter("transactions.retry.retries", operation).increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // Equal jitter: gecikmenin yarisi sabit, yarisi rastgele
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        long half = ceiling / 2;
+        long nanos = half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Concurrent update, please retry");
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name).tag("operation", operation).register(meterRegistry);
+    }
+}
@@ -5,6 +5,7 @@ import com.minicommerceapi.minicommerce.dto.UserDtos;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,21 +15,30 @@ import java.util.Locale;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final EmailBloomFilter emailFilter;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, EmailBloomFilter emailFilter) {
         this.userRepository = userRepository;
+        this.emailFilter = emailFilter;
     }
 
     @Transactional
     public UserDtos.UserResponse create(UserDtos.CreateUserRequest req) {
         String normalizedEmail = normalizeEmail(req.email());
-        if (userRepository.existsByEmail(normalizedEmail)) {
+        if (emailExists(normalizedEmail)) {
             throw new ConflictException("Email already exists");
         }
         User u = new User();
         u.setName(req.name().trim());
         u.setEmail(normalizedEmail);
-        u = userRepository.save(u);
+        emailFilter.add(normalizedEmail);
+        try {
+            u = userRepository.save(u);
+            userRepository.flush(); // INSERT commit'e ertelenmesin; unique ihlali burada 409 olsun
+        } catch (DataIntegrityViolationException e) {
+            // Filtre sorguyu atladiysa ayni anda gelen kayitlari uk_users_email yakalar.
+            throw new ConflictException("Email already exists");
+        }
         return toResponse(u);
     }
 
@@ -47,11 +57,21 @@ public class UserService {
     public UserDtos.UserResponse update(Long id, UserDtos.UpdateUserRequest req) {
         User u = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
         String normalizedEmail = normalizeEmail(req.email());
-        if (!u.getEmail().equals(normalizedEmail) && userRepository.existsByEmail(normalizedEmail)) {
+        boolean emailChanged = !u.getEmail().equals(normalizedEmail);
+        if (emailChanged && emailExists(normalizedEmail)) {
             throw new ConflictException("Email already exists");
         }
         u.setName(req.name().trim());
         u.setEmail(normalizedEmail);
+        if (emailChanged) {
+            emailFilter.add(normalizedEmail);
+            emailFilter.removed();
+            try {
+                userRepository.flush(); // unique ihlali commit'te degil burada 409 olarak donsun
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Email already exists");
+            }
+        }
         return toResponse(u);
     }
 
@@ -61,6 +81,17 @@ public class UserService {
             throw new NotFoundException("User not found");
         }
         userRepository.deleteById(id);
+        emailFilter.removed();
+    }
+
+    // Bloom filter kesin "yok" diyorsa sorgu atlanir; aksi halde DB karar verir.
+    private boolean emailExists(String normalizedEmail) {
+        if (emailFilter.definitelyAbsent(normalizedEmail)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(normalizedEmail);
+        emailFilter.recordLookup(exists);
+        return exists;
     }
 
     private UserDtos.UserResponse toResponse(User u) {
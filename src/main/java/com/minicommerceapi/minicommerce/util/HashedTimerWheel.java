@@ -0,0 +1,92 @@
+package com.minicommerceapi.minicommerce.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hashed timer wheel: deadline'lar tick'e gore sabit bir halkadaki kovalara dagitilir, schedule O(1).
+// Timer iptal edilemez; sure dolunca gelen deger artik gecerli degilse cagiran taraf yok sayar.
+public final class HashedTimerWheel<T> {
+
+    private static final class Timeout<T> {
+        final T value;
+        final long deadlineTick;
+        long remainingRounds;
+
+        Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long currentTick;
+
+    // wheelSize ikinin kuvvetine yuvarlanir
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int n = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = n - 1;
+        this.buckets = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    // Gecmis deadline'lar bir sonraki advance'te doner
+    public void schedule(T value, long deadlineMillis) {
+        long offset = Math.max(0, deadlineMillis - startMillis);
+        pending.add(new Timeout<>(value, (offset + tickMillis - 1) / tickMillis)); // yukari yuvarla: erken tetiklenmez
+        size.incrementAndGet();
+    }
+
+    public synchronized List<T> advance(long nowMillis) {
+        long target = Math.max(0, nowMillis - startMillis) / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= target) {
+            transferPending();
+            expireBucket(buckets.get((int) (currentTick & mask)), expired);
+            currentTick++;
+        }
+        size.addAndGet(-expired.size());
+        return expired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void transferPending() {
+        Timeout<T> t;
+        while ((t = pending.poll()) != null) {
+            long tick = Math.max(t.deadlineTick, currentTick);
+            t.remainingRounds = (tick - currentTick) / buckets.size();
+            buckets.get((int) (tick & mask)).add(t);
+        }
+    }
+
+    private static <T> void expireBucket(List<Timeout<T>> bucket, List<T> expired) {
+        int keep = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout<T> t = bucket.get(i);
+            if (t.remainingRounds <= 0) {
+                expired.add(t.value);
+            } else {
+                t.remainingRounds--;
+                bucket.set(keep++, t);
+            }
+        }
+        bucket.subList(keep, bucket.size()).clear();
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -48,6 +49,17 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody().getTimestamp());
     }
 
+    @Test
+    void handleConcurrencyFailure_shouldReturn409_whenOptimisticLockFails() {
+        ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException("Product", 1L);
+
+        ResponseEntity<ApiError> response = handler.handleConcurrencyFailure(ex, request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Concurrent update, please retry", response.getBody().getMessage());
+    }
+
     @Test
     void handleConflict_shouldReturn409_whenConflictExceptionThrown() {
         ConflictException ex = new ConflictException("Resource already exists");
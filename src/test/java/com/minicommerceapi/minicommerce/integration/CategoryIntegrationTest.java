@@ -116,6 +116,22 @@ class CategoryIntegrationTest {
                 .andExpect(jsonPath("$[*].name", containsInAnyOrder("Category1", "Category2")));
     }
 
+    @Test
+    void testGetCategoryBySlug_Success() throws Exception {
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDtos.CreateCategoryRequest("Home & Garden"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/categories/by-slug/home-garden"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Home & Garden"))
+                .andExpect(jsonPath("$.slug").value("home-garden"));
+
+        mockMvc.perform(get("/api/categories/by-slug/no-such-category"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testUpdateCategory_Success_PutMethod() throws Exception {
         // Create category (using PUT for update as per CategoryController)
@@ -0,0 +1,172 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.service.OrderBatchWriter;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Group-commit order writer on a throwaway SQLite file, plus a small benchmark against the
+ * per-request transaction path (tagged benchmark, ./gradlew benchmark). Numbers are logged, not asserted.
+ */
+@SpringBootTest(properties = {
+        "minicommerce.orders.group-commit.enabled=true",
+        "minicommerce.orders.group-commit.batch-size=32",
+        "minicommerce.orders.group-commit.max-linger=2ms"
+})
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class OrderGroupCommitIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderGroupCommitIntegrationTest.class);
+
+    private static final int THREADS = 8;
+
+    @DynamicPropertySource
+    static void sqliteFile(DynamicPropertyRegistry registry) throws IOException {
+        Path db = Files.createTempFile("minicommerce-group-commit", ".db");
+        db.toFile().deleteOnExit();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:sqlite:" + db + "?transaction_mode=IMMEDIATE&busy_timeout=30000");
+    }
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = new User();
+        user.setName("Batch");
+        user.setEmail("batch@example.com");
+        user = userRepository.save(user);
+
+        category = new Category();
+        category.setName("Batch");
+        category.setSlug("batch");
+        category = categoryRepository.save(category);
+    }
+
+    @Test
+    void failingOrdersInABatch_doNotAffectOthers() throws Exception {
+        Product product = saveProduct("SKU-GC-LIMITED", 5);
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(
+                user.getId(), List.of(new OrderDtos.CreateOrderItem(product.getId(), 1)));
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        run(20, i -> {
+            try {
+                orderBatchWriter.create(req);
+                sold.incrementAndGet();
+            } catch (BadRequestException e) {
+                rejected.incrementAndGet();
+            } catch (Throwable t) {
+                unexpected.add(t);
+            }
+            return null;
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(5, sold.get());
+        assertEquals(15, rejected.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(5, orderRepository.count());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void groupCommit_comparedToPerRequestTransactions() throws Exception {
+        int orders = 400;
+        Product product = saveProduct("SKU-GC-BENCH", orders * 2);
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(
+                user.getId(), List.of(new OrderDtos.CreateOrderItem(product.getId(), 1)));
+
+        long perRequestMs = run(orders, i -> orderService.create(req));
+        long groupedMs = run(orders, i -> orderBatchWriter.create(req));
+
+        assertEquals(orders * 2L, orderRepository.count());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+        log.info("per-request tx: {} orders/s, group commit: {} orders/s",
+                orders * 1000 / Math.max(perRequestMs, 1), orders * 1000 / Math.max(groupedMs, 1));
+    }
+
+    private long run(int count, Function<Integer, Object> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long t0 = System.nanoTime();
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            futures.add(pool.submit(() -> call.apply(n)));
+        }
+        for (Future<Object> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+    }
+
+    private Product saveProduct(String sku, int stock) {
+        Product p = new Product();
+        p.setName(sku);
+        p.setSku(sku);
+        p.setPrice(new BigDecimal("10.00"));
+        p.setStock(stock);
+        p.setCategory(category);
+        return productRepository.save(p);
+    }
+}
@@ -6,6 +6,7 @@ import com.minicommerceapi.minicommerce.dto.OrderDtos;
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
 import com.minicommerceapi.minicommerce.dto.CategoryDtos;
 import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderOutbox;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +50,9 @@ class OrderIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private OrderOutbox orderOutbox;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -106,6 +110,122 @@ class OrderIntegrationTest {
                 .andExpect(jsonPath("$.total").value(75.00));
     }
 
+    @Test
+    void testCreateOrder_IdempotencyKey_ReplaysOriginalOrder() throws Exception {
+        UserDtos.CreateUserRequest userReq = new UserDtos.CreateUserRequest("Retry User", "retry@example.com");
+        MvcResult userResult = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userReq)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        UserDtos.UserResponse user = objectMapper.readValue(userResult.getResponse().getContentAsString(), UserDtos.UserResponse.class);
+
+        CategoryDtos.CreateCategoryRequest categoryReq = new CategoryDtos.CreateCategoryRequest("Retry");
+        MvcResult categoryResult = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(categoryReq)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        CategoryDtos.CategoryResponse category = objectMapper.readValue(categoryResult.getResponse().getContentAsString(), CategoryDtos.CategoryResponse.class);
+
+        ProductDtos.CreateProductRequest productReq = new ProductDtos.CreateProductRequest("Lamp", "SKU-LAMP-001", new BigDecimal("30.00"), 10, category.id());
+        MvcResult productResult = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productReq)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        ProductDtos.ProductResponse product = objectMapper.readValue(productResult.getResponse().getContentAsString(), ProductDtos.ProductResponse.class);
+
+        OrderDtos.CreateOrderRequest orderReq = new OrderDtos.CreateOrderRequest(
+                user.id(),
+                List.of(new OrderDtos.CreateOrderItem(product.id(), 2))
+        );
+        MvcResult first = mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "checkout-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderReq)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+        OrderDtos.OrderResponse order = objectMapper.readValue(first.getResponse().getContentAsString(), OrderDtos.OrderResponse.class);
+
+        // Retry with the same key: same order, stock not deducted again
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "checkout-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderReq)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(order.id()));
+
+        mockMvc.perform(get("/api/products/" + product.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(8));
+
+        // The replay returns the original response, not the order as it is now
+        mockMvc.perform(patch("/api/orders/" + order.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.PatchOrderRequest("PAID"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "checkout-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderReq)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.status").value("CREATED"));
+
+        // Same key with a different body is rejected
+        OrderDtos.CreateOrderRequest otherReq = new OrderDtos.CreateOrderRequest(
+                user.id(),
+                List.of(new OrderDtos.CreateOrderItem(product.id(), 1))
+        );
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "checkout-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherReq)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testListOrders_FilteredByUser_KeysetPagination() throws Exception {
+        Long alice = createUser("Alice", "alice@example.com");
+        Long bob = createUser("Bob", "bob@example.com");
+        Long productId = createProduct("Pens", "SKU-PEN-001");
+
+        Long first = createOrder(alice, productId);
+        Long second = createOrder(alice, productId);
+        Long third = createOrder(alice, productId);
+        createOrder(bob, productId);
+
+        // Newest first, two per page
+        MvcResult page1 = mockMvc.perform(get("/api/orders")
+                        .param("userId", alice.toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(third))
+                .andExpect(jsonPath("$[1].id").value(second))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/orders")
+                        .param("userId", alice.toString())
+                        .param("after", page1.getResponse().getHeader("X-Next-Cursor"))
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(first))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        // Status filter
+        mockMvc.perform(get("/api/orders")
+                        .param("userId", alice.toString())
+                        .param("status", "PAID"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     void testGetOrder_NotFound_ErrorScenario() throws Exception {
         mockMvc.perform(get("/api/orders/99999"))
@@ -240,4 +360,90 @@ class OrderIntegrationTest {
                         .content(objectMapper.writeValueAsString(invalidOrderReq)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void testOrderEvents_FeedCursorAndConsumerOffset() throws Exception {
+        long start = orderOutbox.lastEventId(); // dosyada commit edilmis eski olaylar olabilir
+        Long userId = createUser("Feed", "feed@example.com");
+        Long productId = createProduct("Mugs", "SKU-MUG-001");
+        Long orderId = createOrder(userId, productId);
+        mockMvc.perform(patch("/api/orders/" + orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.PatchOrderRequest("PAID"))))
+                .andExpect(status().isOk());
+
+        MvcResult all = mockMvc.perform(get("/api/orders/events").param("after", Long.toString(start)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type").value("ORDER_CREATED"))
+                .andExpect(jsonPath("$[0].orderId").value(orderId))
+                .andExpect(jsonPath("$[0].payload.status").value("CREATED"))
+                .andExpect(jsonPath("$[1].type").value("ORDER_STATUS_CHANGED"))
+                .andExpect(jsonPath("$[1].payload.status").value("PAID"))
+                .andReturn();
+        String last = all.getResponse().getHeader("X-Next-Cursor");
+
+        // Tuketici ilk olayi isledi: offset kaydedilir, cursor'siz okuma oradan devam eder
+        MvcResult first = mockMvc.perform(get("/api/orders/events").param("after", Long.toString(start)).param("limit", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn();
+        long firstId = Long.parseLong(first.getResponse().getHeader("X-Next-Cursor"));
+        mockMvc.perform(put("/api/orders/events/consumers/fulfilment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.AckOrderEventsRequest(firstId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastEventId").value(firstId));
+        mockMvc.perform(get("/api/orders/events").param("consumer", "fulfilment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type").value("ORDER_STATUS_CHANGED"));
+        mockMvc.perform(get("/api/orders/events/consumers/fulfilment"))
+                .andExpect(jsonPath("$.lastEventId").value(firstId));
+
+        mockMvc.perform(get("/api/orders/events").param("after", last))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        mockMvc.perform(get("/api/orders/events").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createUser(String name, String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDtos.CreateUserRequest(name, email))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), UserDtos.UserResponse.class).id();
+    }
+
+    private Long createProduct(String name, String sku) throws Exception {
+        MvcResult categoryResult = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDtos.CreateCategoryRequest(name))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        CategoryDtos.CategoryResponse category = objectMapper.readValue(categoryResult.getResponse().getContentAsString(), CategoryDtos.CategoryResponse.class);
+
+        ProductDtos.CreateProductRequest productReq = new ProductDtos.CreateProductRequest(name, sku, new BigDecimal("5.00"), 100, category.id());
+        MvcResult productResult = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productReq)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(productResult.getResponse().getContentAsString(), ProductDtos.ProductResponse.class).id();
+    }
+
+    private Long createOrder(Long userId, Long productId) throws Exception {
+        OrderDtos.CreateOrderRequest orderReq = new OrderDtos.CreateOrderRequest(
+                userId,
+                List.of(new OrderDtos.CreateOrderItem(productId, 1))
+        );
+        MvcResult result = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderReq)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), OrderDtos.OrderResponse.class).id();
+    }
 }
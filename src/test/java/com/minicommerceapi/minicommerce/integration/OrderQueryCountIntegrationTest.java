@@ -0,0 +1,166 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.*;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Order read endpoints must stay within a fixed statement budget no matter how many orders,
+ * items and products are involved (no N+1 on user, items or item products).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class OrderQueryCountIntegrationTest {
+
+    private static final int ORDERS = 6;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private Order firstOrder;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        Category category = new Category();
+        category.setName("Budget");
+        category.setSlug("budget");
+        category = categoryRepository.save(category);
+
+        products = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            Product p = new Product();
+            p.setName("Product " + i);
+            p.setSku("SKU-BUDGET-" + i);
+            p.setPrice(new BigDecimal("10.00"));
+            p.setStock(100);
+            p.setCategory(category);
+            products.add(productRepository.save(p));
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            User u = new User();
+            u.setName("User " + i);
+            u.setEmail("budget" + i + "@example.com");
+            u = userRepository.save(u);
+
+            Order o = new Order();
+            o.setUser(u);
+            o.setTotal(new BigDecimal("20.00"));
+            for (int j = 0; j < 2; j++) {
+                OrderItem item = new OrderItem();
+                item.setProduct(products.get((i + j) % products.size()));
+                item.setQuantity(1);
+                item.setUnitPrice(new BigDecimal("10.00"));
+                item.setLineTotal(new BigDecimal("10.00"));
+                o.addItem(item);
+            }
+            Order saved = orderRepository.save(o);
+            if (firstOrder == null) {
+                firstOrder = saved;
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listOrders_staysWithinStatementBudget() throws Exception {
+        mockMvc.perform(get("/api/orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ORDERS)))
+                .andExpect(jsonPath("$[0].items", hasSize(2)))
+                .andExpect(jsonPath("$[0].items[0].productName").exists());
+
+        // orders (+user) , items (batch), products (batch)
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 3, "expected at most 3 statements but was " + statements);
+    }
+
+    @Test
+    void getOrder_usesSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/orders/" + firstOrder.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)));
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 1, "expected 1 statement but was " + statements);
+    }
+
+    @Test
+    void saveOrderWithManyItems_batchesInserts() {
+        User u = entityManager.find(User.class, firstOrder.getUser().getId());
+        Order o = new Order();
+        o.setUser(u);
+        o.setTotal(new BigDecimal("250.00"));
+        for (int i = 0; i < 25; i++) {
+            OrderItem item = new OrderItem();
+            item.setProduct(entityManager.getReference(Product.class, products.get(i % products.size()).getId()));
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            item.setLineTotal(new BigDecimal("10.00"));
+            o.addItem(item);
+        }
+        statistics.clear();
+
+        orderRepository.save(o);
+        entityManager.flush();
+
+        // Id'ler onceden bilindigi icin: orders icin bir, 25 order_items satiri icin tek batch statement
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2, "expected at most 2 statements but was " + statements);
+    }
+}
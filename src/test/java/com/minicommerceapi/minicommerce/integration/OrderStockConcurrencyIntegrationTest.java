@@ -0,0 +1,183 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent checkouts against a single SKU. Runs on its own throwaway SQLite file because the
+ * transactions have to really commit for the threads to compete. The timing comparison is tagged
+ * benchmark and only runs with ./gradlew benchmark.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class OrderStockConcurrencyIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStockConcurrencyIntegrationTest.class);
+
+    private static final int THREADS = 8;
+    private static final int INITIAL_STOCK = 100;
+    private static final int ATTEMPTS = 300;
+
+    @DynamicPropertySource
+    static void sqliteFile(DynamicPropertyRegistry registry) throws IOException {
+        Path db = Files.createTempFile("minicommerce-stock", ".db");
+        db.toFile().deleteOnExit();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:sqlite:" + db + "?transaction_mode=IMMEDIATE&busy_timeout=30000");
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = new User();
+        user.setName("Stress");
+        user.setEmail("stress@example.com");
+        user = userRepository.save(user);
+
+        category = new Category();
+        category.setName("Flash");
+        category.setSlug("flash");
+        category = categoryRepository.save(category);
+    }
+
+    @Test
+    void concurrentCheckouts_neverOversell() throws Exception {
+        Product product = saveProduct("SKU-FLASH-1", INITIAL_STOCK);
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(
+                user.getId(), List.of(new OrderDtos.CreateOrderItem(product.getId(), 1)));
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(() -> {
+            try {
+                orderService.create(req);
+                sold.incrementAndGet();
+            } catch (BadRequestException e) {
+                rejected.incrementAndGet();
+            } catch (Throwable t) {
+                unexpected.add(t);
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(INITIAL_STOCK, sold.get());
+        assertEquals(ATTEMPTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(INITIAL_STOCK, orderRepository.count());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void atomicDecrement_comparedToReadModifyWrite() throws Exception {
+        Product legacy = saveProduct("SKU-RMW", INITIAL_STOCK);
+        AtomicInteger legacySold = new AtomicInteger();
+        long legacyMs = runConcurrently(() -> transactionTemplate.executeWithoutResult(status -> {
+            // Eski yaklasim: oku, kontrol et, set et (entity flush ile UPDATE)
+            Product p = productRepository.findById(legacy.getId()).orElseThrow();
+            if (p.getStock() >= 1) {
+                p.setStock(p.getStock() - 1);
+                legacySold.incrementAndGet();
+            }
+        }));
+
+        Product atomic = saveProduct("SKU-ATOMIC", INITIAL_STOCK);
+        AtomicInteger atomicSold = new AtomicInteger();
+        long atomicMs = runConcurrently(() -> transactionTemplate.executeWithoutResult(status -> {
+            if (productRepository.decrementStock(atomic.getId(), 1) == 1) {
+                atomicSold.incrementAndGet();
+            }
+        }));
+
+        assertEquals(INITIAL_STOCK, atomicSold.get());
+        assertEquals(0, productRepository.findById(atomic.getId()).orElseThrow().getStock());
+        log.info("read-modify-write: {} ms ({} ops/s, sold {}), conditional update: {} ms ({} ops/s, sold {})",
+                legacyMs, ATTEMPTS * 1000L / Math.max(legacyMs, 1), legacySold.get(),
+                atomicMs, ATTEMPTS * 1000L / Math.max(atomicMs, 1), atomicSold.get());
+    }
+
+    private long runConcurrently(Runnable attempt) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            pool.submit(() -> {
+                start.await();
+                attempt.run();
+                return null;
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+    }
+
+    private Product saveProduct(String sku, int stock) {
+        Product p = new Product();
+        p.setName(sku);
+        p.setSku(sku);
+        p.setPrice(new BigDecimal("10.00"));
+        p.setStock(stock);
+        p.setCategory(category);
+        return productRepository.save(p);
+    }
+}
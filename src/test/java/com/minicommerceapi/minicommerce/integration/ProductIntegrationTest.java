@@ -21,6 +21,7 @@ import org.springframework.web.context.WebApplicationContext;
 import java.math.BigDecimal;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -186,6 +187,38 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$[*].name", containsInAnyOrder("iPhone 13", "Samsung Galaxy")));
     }
 
+    @Test
+    void testListProducts_KeysetPagination() throws Exception {
+        CategoryDtos.CategoryResponse category = createCategory("Tablets");
+        ProductDtos.ProductResponse first = createProduct("Tablet A", "SKU-TAB-001", category.id());
+        ProductDtos.ProductResponse second = createProduct("Tablet B", "SKU-TAB-002", category.id());
+        createProduct("Tablet C", "SKU-TAB-003", category.id());
+
+        // First page: two items and a cursor pointing at the last one
+        mockMvc.perform(get("/api/products").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(first.id()))
+                .andExpect(jsonPath("$[1].id").value(second.id()))
+                .andExpect(header().string("X-Next-Cursor", second.id().toString()));
+
+        // Second page: remaining item, no further cursor
+        mockMvc.perform(get("/api/products")
+                        .param("categoryId", category.id().toString())
+                        .param("after", second.id().toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Tablet C"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testListProducts_InvalidLimit_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/products").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testPatchProduct_Success_PatchMethod() throws Exception {
         // Create category and product
@@ -350,4 +383,167 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].name").value("Product1"));
     }
+
+    @Test
+    void testListProducts_FilterByPriceAndStock_SortedByPrice() throws Exception {
+        CategoryDtos.CategoryResponse category = createCategory("Filters");
+        Long cheap = createProduct("Cheap", "SKU-F-1", new BigDecimal("5.00"), 3, category.id()).id();
+        Long mid = createProduct("Mid", "SKU-F-2", new BigDecimal("20.00"), 3, category.id()).id();
+        Long midTwin = createProduct("Mid twin", "SKU-F-3", new BigDecimal("20.00"), 7, category.id()).id();
+        createProduct("Sold out", "SKU-F-4", new BigDecimal("25.00"), 0, category.id());
+        createProduct("Pricey", "SKU-F-5", new BigDecimal("90.00"), 1, category.id());
+
+        // price_asc, fiyat esitliginde id sirasi; 2'lik sayfalar cursor ile devam eder
+        MvcResult firstPage = mockMvc.perform(get("/api/products")
+                        .param("categoryId", category.id().toString())
+                        .param("minPrice", "5")
+                        .param("maxPrice", "50")
+                        .param("inStock", "true")
+                        .param("sort", "price_asc")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", endsWith(":" + mid)))
+                .andExpect(jsonPath("$[*].id", contains(cheap.intValue(), mid.intValue())))
+                .andReturn();
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        // Cursor fiyati tasir: cursor urunu silinse de sonraki sayfa kaybolmaz
+        mockMvc.perform(delete("/api/products/" + mid))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products")
+                        .param("categoryId", category.id().toString())
+                        .param("minPrice", "5")
+                        .param("maxPrice", "50")
+                        .param("inStock", "true")
+                        .param("sort", "price_asc")
+                        .param("after", cursor)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[*].id", contains(midTwin.intValue())));
+
+        mockMvc.perform(get("/api/products").param("inStock", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Sold out")));
+    }
+
+    @Test
+    void testListProducts_InvalidFilter_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products").param("minPrice", "10").param("maxPrice", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("sort", "name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBulkImport_Csv_ReportsRowErrors() throws Exception {
+        CategoryDtos.CategoryResponse category = createCategory("Bulk");
+        createProduct("Existing", "SKU-EXISTING", category.id());
+
+        String csv = String.join("\n",
+                "sku,name,price,stock,categoryId",
+                "SKU-B1,\"Desk, oak\",120.50,5," + category.id(),
+                "SKU-B2,Chair,45.00,10," + category.id(),
+                "SKU-B2,Chair again,45.00,10," + category.id(),
+                "SKU-EXISTING,Dup,1.00,1," + category.id(),
+                "SKU-B3,Lamp,abc,1," + category.id(),
+                "SKU-B4,Rug,10.00,1,999999",
+                "");
+
+        mockMvc.perform(post("/api/products/bulk")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(6))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.errors[*].line", containsInAnyOrder(4, 5, 6, 7)))
+                .andExpect(jsonPath("$.errorsTruncated").value(false));
+
+        mockMvc.perform(get("/api/products").param("categoryId", category.id().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Existing", "Desk, oak", "Chair")));
+    }
+
+    @Test
+    void testBulkImport_Ndjson_Success() throws Exception {
+        CategoryDtos.CategoryResponse category = createCategory("Bulk");
+
+        String ndjson = objectMapper.writeValueAsString(new ProductDtos.CreateProductRequest(
+                "Pen", "SKU-N1", new BigDecimal("1.50"), 100, category.id()))
+                + "\n" + objectMapper.writeValueAsString(new ProductDtos.CreateProductRequest(
+                "Pencil", "SKU-N2", new BigDecimal("0.75"), 200, category.id()))
+                + "\n{\"name\":\"\",\"sku\":\"SKU-N3\",\"price\":1,\"stock\":1,\"categoryId\":" + category.id() + "}\n"
+                + "null\n";
+
+        mockMvc.perform(post("/api/products/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].sku").value("SKU-N3"))
+                .andExpect(jsonPath("$.errors[1].line").value(4));
+    }
+
+    @Test
+    void testBulkImport_CsvWithoutRequiredHeader_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/products/bulk")
+                        .contentType("text/csv")
+                        .content("sku,name\nSKU-1,Thing\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportProducts_StreamsNdjson() throws Exception {
+        CategoryDtos.CategoryResponse category = createCategory("Export");
+        ProductDtos.ProductResponse first = createProduct("First", "SKU-EXP-1", category.id());
+        ProductDtos.ProductResponse second = createProduct("Second", "SKU-EXP-2", category.id());
+
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        ProductDtos.ProductResponse line1 = objectMapper.readValue(lines[0], ProductDtos.ProductResponse.class);
+        ProductDtos.ProductResponse line2 = objectMapper.readValue(lines[1], ProductDtos.ProductResponse.class);
+        assertEquals(first.id(), line1.id());
+        assertEquals("Export", line1.categoryName());
+        assertEquals(second.id(), line2.id());
+    }
+
+    private CategoryDtos.CategoryResponse createCategory(String name) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDtos.CreateCategoryRequest(name))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), CategoryDtos.CategoryResponse.class);
+    }
+
+    private ProductDtos.ProductResponse createProduct(String name, String sku, Long categoryId) throws Exception {
+        ProductDtos.CreateProductRequest req = new ProductDtos.CreateProductRequest(
+                name, sku, new BigDecimal("10.00"), 10, categoryId
+        );
+        MvcResult result = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ProductDtos.ProductResponse.class);
+    }
+
+    private ProductDtos.ProductResponse createProduct(String name, String sku, BigDecimal price, int stock, Long categoryId) throws Exception {
+        ProductDtos.CreateProductRequest req = new ProductDtos.CreateProductRequest(name, sku, price, stock, categoryId);
+        MvcResult result = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ProductDtos.ProductResponse.class);
+    }
 }
@@ -0,0 +1,148 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Product read endpoints must cost a fixed number of SQL statements, independent of how many
+ * products (and distinct categories) are returned. Uses Hibernate statistics to count statements.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ProductQueryCountIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private Category books;
+    private Product firstBook;
+    private Product lastGame;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        books = saveCategory("Books", "books");
+        Category games = saveCategory("Games", "games");
+        firstBook = saveProduct("Book 1", "SKU-B-1", books);
+        saveProduct("Book 2", "SKU-B-2", books);
+        saveProduct("Book 3", "SKU-B-3", books);
+        saveProduct("Game 1", "SKU-G-1", games);
+        lastGame = saveProduct("Game 2", "SKU-G-2", games);
+
+        // Start every request with an empty persistence context so lazy loads would really hit the DB
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listProducts_usesSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].categoryName").value("Books"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listProductsByCategory_usesSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/products").param("categoryId", books.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listProductsWithFiltersAndPriceSort_usesSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/products")
+                        .param("categoryId", books.getId().toString())
+                        .param("minPrice", "5")
+                        .param("inStock", "true")
+                        .param("sort", "price_desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].categoryName").value("Books"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getProduct_usesSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/products/" + firstBook.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Books"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getProductsByIds_usesSingleStatement_andKeepsRequestOrder() throws Exception {
+        mockMvc.perform(get("/api/products").param("ids", lastGame.getId() + ",999999," + firstBook.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].sku").value("SKU-G-2"))
+                .andExpect(jsonPath("$.items[1].categoryName").value("Books"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Category saveCategory(String name, String slug) {
+        Category c = new Category();
+        c.setName(name);
+        c.setSlug(slug);
+        return categoryRepository.save(c);
+    }
+
+    private Product saveProduct(String name, String sku, Category category) {
+        Product p = new Product();
+        p.setName(name);
+        p.setSku(sku);
+        p.setPrice(new BigDecimal("10.00"));
+        p.setStock(5);
+        p.setCategory(category);
+        return productRepository.save(p);
+    }
+}
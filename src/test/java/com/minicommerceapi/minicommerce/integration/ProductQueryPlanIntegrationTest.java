@@ -0,0 +1,96 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ProductSpecifications;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The catalog filters of GET /api/products must be answered from the indexes declared on Product,
+ * not by scanning and sorting the products table. The SQL Hibernate generates for the Criteria query
+ * is captured and checked with SQLite's EXPLAIN QUERY PLAN.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.minicommerceapi.minicommerce.integration.ProductQueryPlanIntegrationTest$CapturingInspector")
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ProductQueryPlanIntegrationTest {
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void categoryAndPriceRange_usesCategoryPriceIndex() {
+        String plan = planOf(new ProductDtos.ProductFilter(1L, new BigDecimal("10"), new BigDecimal("50"), null),
+                ProductDtos.ProductSort.PRICE_ASC, new ProductDtos.ProductCursor(new BigDecimal("20"), 5L));
+        assertTrue(plan.contains("idx_products_category_price"), plan);
+        assertFalse(plan.contains("TEMP B-TREE"), plan);
+    }
+
+    @Test
+    void categoryAndPriceSortDescending_usesCategoryPriceIndex() {
+        // Fiyat esitliginde id artan: index geriye taranirken ayni fiyattaki satirlar kucuk bir sort ile siralanabilir
+        String plan = planOf(new ProductDtos.ProductFilter(1L, null, null, true), ProductDtos.ProductSort.PRICE_DESC, null);
+        assertTrue(plan.contains("idx_products_category_price"), plan);
+        assertFalse(plan.contains("USE TEMP B-TREE FOR ORDER BY"), plan);
+    }
+
+    @Test
+    void inStock_usesStockIndexOrIdOrderWithoutSorting() {
+        // id sirasinda LIMIT'li sayfa: ya stok index'i ya da LIMIT'te duran rowid taramasi; tum tabloyu siralamak degil
+        String plan = planOf(new ProductDtos.ProductFilter(null, null, null, true), ProductDtos.ProductSort.ID,
+                new ProductDtos.ProductCursor(null, 100L));
+        boolean stockIndex = plan.contains("idx_products_stock");
+        boolean idSeek = plan.contains("USING INTEGER PRIMARY KEY") && !plan.contains("TEMP B-TREE");
+        assertTrue(stockIndex || idSeek, plan);
+    }
+
+    private String planOf(ProductDtos.ProductFilter filter, ProductDtos.ProductSort sort, ProductDtos.ProductCursor after) {
+        productRepository.findResponses(ProductSpecifications.matching(filter), sort, after, 51);
+        String sql = CapturingInspector.statements.stream()
+                .filter(s -> s.startsWith("select") && s.contains(" from products "))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No product query captured: " + CapturingInspector.statements));
+        assertTrue(sql.contains("join categories") && sql.contains("product_rating_stats"), sql);
+        // Plan degerlere degil sorgunun bicimine gore secilir: tum parametrelere 1 baglanir
+        List<String> details = jdbcTemplate.query("explain query plan " + sql, ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setLong(i, 1);
+            }
+        }, (rs, i) -> rs.getString("detail"));
+        return String.join("\n", details) + "\n-- " + sql;
+    }
+}
@@ -0,0 +1,191 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.ReservationDtos;
+import com.minicommerceapi.minicommerce.dto.UserDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ReservationIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        reservationRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testReservation_HoldsStock_AndOrderConsumesIt() throws Exception {
+        Long userId = createUser("Holder", "holder@example.com");
+        Long productId = createProduct("Tickets", "SKU-TICKET-001", 10);
+
+        Long reservationId = reserve(userId, productId, 4);
+        mockMvc.perform(get("/api/reservations/" + reservationId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andExpect(jsonPath("$.items[0].quantity").value(4))
+                .andExpect(jsonPath("$.expiresAt").exists());
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.stock").value(6));
+
+        OrderDtos.CreateOrderRequest orderReq = new OrderDtos.CreateOrderRequest(
+                userId, List.of(new OrderDtos.CreateOrderItem(productId, 4)), reservationId);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderReq)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items[0].quantity").value(4));
+
+        // Stok rezervasyonda dusuldu; siparis tekrar dusmez
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.stock").value(6));
+        mockMvc.perform(get("/api/reservations/" + reservationId))
+                .andExpect(jsonPath("$.status").value("CONSUMED"));
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderReq)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testReservation_RejectsMismatchedOrderAndOtherUser() throws Exception {
+        Long userId = createUser("Holder", "holder@example.com");
+        Long otherId = createUser("Other", "other@example.com");
+        Long productId = createProduct("Tickets", "SKU-TICKET-001", 10);
+        Long reservationId = reserve(userId, productId, 2);
+
+        OrderDtos.CreateOrderRequest wrongQuantity = new OrderDtos.CreateOrderRequest(
+                userId, List.of(new OrderDtos.CreateOrderItem(productId, 3)), reservationId);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(wrongQuantity)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Order items must match the reservation"));
+
+        OrderDtos.CreateOrderRequest wrongUser = new OrderDtos.CreateOrderRequest(
+                otherId, List.of(new OrderDtos.CreateOrderItem(productId, 2)), reservationId);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(wrongUser)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testReservation_InsufficientStockAndTooLongHold() throws Exception {
+        Long userId = createUser("Holder", "holder@example.com");
+        Long productId = createProduct("Tickets", "SKU-TICKET-001", 1);
+
+        ReservationDtos.CreateReservationRequest tooMany = new ReservationDtos.CreateReservationRequest(
+                userId, List.of(new OrderDtos.CreateOrderItem(productId, 2)), 5);
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tooMany)))
+                .andExpect(status().isBadRequest());
+
+        ReservationDtos.CreateReservationRequest tooLong = new ReservationDtos.CreateReservationRequest(
+                userId, List.of(new OrderDtos.CreateOrderItem(productId, 1)), 24 * 60);
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tooLong)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.stock").value(1));
+    }
+
+    @Test
+    void testGetReservation_NotFound() throws Exception {
+        mockMvc.perform(get("/api/reservations/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long reserve(Long userId, Long productId, int quantity) throws Exception {
+        ReservationDtos.CreateReservationRequest req = new ReservationDtos.CreateReservationRequest(
+                userId, List.of(new OrderDtos.CreateOrderItem(productId, quantity)), 10);
+        MvcResult result = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private Long createUser(String name, String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDtos.CreateUserRequest(name, email))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), UserDtos.UserResponse.class).id();
+    }
+
+    private Long createProduct(String name, String sku, int stock) throws Exception {
+        MvcResult categoryResult = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDtos.CreateCategoryRequest(name))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        CategoryDtos.CategoryResponse category = objectMapper.readValue(categoryResult.getResponse().getContentAsString(), CategoryDtos.CategoryResponse.class);
+
+        ProductDtos.CreateProductRequest productReq = new ProductDtos.CreateProductRequest(name, sku, new BigDecimal("5.00"), stock, category.id());
+        MvcResult productResult = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productReq)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(productResult.getResponse().getContentAsString(), ProductDtos.ProductResponse.class).id();
+    }
+}
@@ -6,6 +6,7 @@ import com.minicommerceapi.minicommerce.dto.ProductDtos;
 import com.minicommerceapi.minicommerce.dto.ReviewDtos;
 import com.minicommerceapi.minicommerce.dto.UserDtos;
 import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRatingStatsRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import com.minicommerceapi.minicommerce.repo.ReviewRepository;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
@@ -51,12 +52,16 @@ class ReviewIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         reviewRepository.deleteAll();
+        productRatingStatsRepository.deleteAll();
         productRepository.deleteAll();
         userRepository.deleteAll();
         categoryRepository.deleteAll();
@@ -341,6 +346,44 @@ class ReviewIntegrationTest {
 
     // Helper methods
 
+    @Test
+    void testRatingStats_FollowReviewChanges() throws Exception {
+        UserDtos.UserResponse user = createUser("Rita", "rita@example.com");
+        CategoryDtos.CategoryResponse category = createCategory("Audio");
+        ProductDtos.ProductResponse product = createProduct("Speaker", "SKU-SPK-001", new BigDecimal("79.99"), 5, category.id());
+
+        mockMvc.perform(get("/api/products/" + product.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.avgRating").value(nullValue()))
+                .andExpect(jsonPath("$.reviewCount").value(0));
+
+        ReviewDtos.ReviewResponse first = createReview(user.id(), product.id(), 5, "Great");
+        createReview(user.id(), product.id(), 2, "Meh");
+
+        mockMvc.perform(get("/api/products/" + product.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.avgRating").value(3.5))
+                .andExpect(jsonPath("$.reviewCount").value(2));
+
+        mockMvc.perform(patch("/api/reviews/" + first.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReviewDtos.PatchReviewRequest(4, null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].avgRating").value(3.0))
+                .andExpect(jsonPath("$[0].reviewCount").value(2));
+
+        mockMvc.perform(delete("/api/reviews/" + first.id()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/" + product.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.avgRating").value(2.0))
+                .andExpect(jsonPath("$.reviewCount").value(1));
+    }
+
     private UserDtos.UserResponse createUser(String name, String email) throws Exception {
         UserDtos.CreateUserRequest userReq = new UserDtos.CreateUserRequest(name, email);
         MvcResult result = mockMvc.perform(post("/api/users")
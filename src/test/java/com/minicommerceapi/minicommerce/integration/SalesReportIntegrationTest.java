@@ -0,0 +1,224 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.UserDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class SalesReportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private DailyCategorySalesRepository dailyCategorySalesRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private MockMvc mockMvc;
+
+    private final String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        dailyProductSalesRepository.deleteAll();
+        dailyCategorySalesRepository.deleteAll();
+        reservationRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testSalesReport_FollowsOrderLifecycle_AndMatchesRebuild() throws Exception {
+        Long userId = createUser("Buyer", "buyer@example.com");
+        Long booksId = createCategory("Books");
+        Long toysId = createCategory("Toys");
+        Long novelId = createProduct("Novel", "SKU-NOVEL-001", "12.50", booksId);
+        Long atlasId = createProduct("Atlas", "SKU-ATLAS-001", "30.00", booksId);
+        Long ballId = createProduct("Ball", "SKU-BALL-001", "4.00", toysId);
+
+        Long paidOrder = createOrder(userId, new OrderDtos.CreateOrderItem(novelId, 2), new OrderDtos.CreateOrderItem(ballId, 1));
+        Long openOrder = createOrder(userId, new OrderDtos.CreateOrderItem(atlasId, 1));
+        Long cancelledOrder = createOrder(userId, new OrderDtos.CreateOrderItem(novelId, 4));
+        patchStatus(paidOrder, "PAID");
+        patchStatus(cancelledOrder, "CANCELLED");
+
+        // Satilan: 2 Novel (25.00) + 1 Ball (4.00) odendi, 1 Atlas (30.00) acik; iptal edilen siparis sayilmaz
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupBy").value("day"))
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].key").value(today))
+                .andExpect(jsonPath("$.rows[0].units").value(4))
+                .andExpect(jsonPath("$.rows[0].revenue").value(59.0))
+                .andExpect(jsonPath("$.rows[0].paidUnits").value(3))
+                .andExpect(jsonPath("$.rows[0].paidRevenue").value(29.0));
+
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today).param("groupBy", "category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows[0].key").value(booksId.toString()))
+                .andExpect(jsonPath("$.rows[0].name").value("Books"))
+                .andExpect(jsonPath("$.rows[0].units").value(3))
+                .andExpect(jsonPath("$.rows[0].revenue").value(55.0))
+                .andExpect(jsonPath("$.rows[1].name").value("Toys"));
+
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today)
+                        .param("groupBy", "product").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].name").value("Atlas"))
+                .andExpect(jsonPath("$.rows[0].revenue").value(30.0));
+
+        // Rebuild siparislerden ayni toplamlari uretmeli; silinen siparis raporlardan duser
+        mockMvc.perform(post("/api/reports/sales/rebuild").param("from", today).param("to", today))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days").value(1));
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today).param("groupBy", "month"))
+                .andExpect(jsonPath("$.rows[0].key").value(today.substring(0, 7)))
+                .andExpect(jsonPath("$.rows[0].units").value(4))
+                .andExpect(jsonPath("$.rows[0].revenue").value(59.0))
+                .andExpect(jsonPath("$.rows[0].paidRevenue").value(29.0));
+
+        mockMvc.perform(delete("/api/orders/" + openOrder))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today))
+                .andExpect(jsonPath("$.rows[0].units").value(3))
+                .andExpect(jsonPath("$.rows[0].revenue").value(29.0));
+    }
+
+    @Test
+    void testSalesReport_KeepsSalesInTheCategoryOfTheOrder_WhenProductMoves() throws Exception {
+        Long userId = createUser("Buyer", "mover@example.com");
+        Long booksId = createCategory("Books");
+        Long toysId = createCategory("Toys");
+        Long puzzleId = createProduct("Puzzle", "SKU-PUZZLE-001", "10.00", booksId);
+
+        Long orderId = createOrder(userId, new OrderDtos.CreateOrderItem(puzzleId, 2));
+        mockMvc.perform(patch("/api/products/" + puzzleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ProductDtos.PatchProductRequest(null, null, null, null, toysId))))
+                .andExpect(status().isOk());
+        patchStatus(orderId, "PAID");
+
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today).param("groupBy", "category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].name").value("Books"))
+                .andExpect(jsonPath("$.rows[0].units").value(2))
+                .andExpect(jsonPath("$.rows[0].paidUnits").value(2));
+
+        mockMvc.perform(post("/api/reports/sales/rebuild").param("from", today).param("to", today))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today).param("groupBy", "category"))
+                .andExpect(jsonPath("$.rows.length()").value(1))
+                .andExpect(jsonPath("$.rows[0].name").value("Books"))
+                .andExpect(jsonPath("$.rows[0].paidRevenue").value(20.0));
+    }
+
+    @Test
+    void testSalesReport_RejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/reports/sales").param("to", today))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/sales").param("from", "2024-13-01").param("to", today))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/sales").param("from", today).param("to", today).param("groupBy", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid groupBy. Allowed: day, month, product, category"));
+        mockMvc.perform(get("/api/reports/sales").param("from", "2024-01-01").param("to", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(0));
+        mockMvc.perform(post("/api/reports/sales/rebuild").param("from", "0001-01-01").param("to", "9999-12-31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createOrder(Long userId, OrderDtos.CreateOrderItem... items) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.CreateOrderRequest(userId, List.of(items)))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private void patchStatus(Long orderId, String status) throws Exception {
+        mockMvc.perform(patch("/api/orders/" + orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.PatchOrderRequest(status))))
+                .andExpect(status().isOk());
+    }
+
+    private Long createUser(String name, String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDtos.CreateUserRequest(name, email))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), UserDtos.UserResponse.class).id();
+    }
+
+    private Long createCategory(String name) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDtos.CreateCategoryRequest(name))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), CategoryDtos.CategoryResponse.class).id();
+    }
+
+    private Long createProduct(String name, String sku, String price, Long categoryId) throws Exception {
+        ProductDtos.CreateProductRequest req = new ProductDtos.CreateProductRequest(name, sku, new BigDecimal(price), 100, categoryId);
+        MvcResult result = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ProductDtos.ProductResponse.class).id();
+    }
+}
@@ -0,0 +1,158 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.config.SqliteDataSourceConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mixed read/write load (80% point reads, 20% single-row updates) against a throwaway SQLite file:
+ * one shared pool with the default rollback journal (the previous setup) versus the
+ * {@link SqliteDataSourceConfig} split (single WAL writer + read pool). Logs the throughput of both;
+ * asserts only that no operation failed and no update was lost. Runs with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+class SqliteReadWriteSplitBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SqliteReadWriteSplitBenchmarkTest.class);
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 4000;
+    private static final int ROWS = 1000;
+    private static final int WRITE_PERCENT = 20;
+
+    @Test
+    void mixedLoad_sharedPoolComparedToReaderWriterSplit() throws Exception {
+        Path sharedDb = tempDb();
+        long sharedMs;
+        try (HikariDataSource shared = sharedPool(sharedDb)) {
+            seed(shared);
+            sharedMs = run(shared, shared, sharedDb);
+        }
+
+        Path splitDb = tempDb();
+        long splitMs;
+        SqliteDataSourceConfig.SqlitePragmas pragmas =
+                new SqliteDataSourceConfig.SqlitePragmas("WAL", "NORMAL", 30000, 268435456L, -20000);
+        try (HikariDataSource writer = SqliteDataSourceConfig.writerPool("jdbc:sqlite:" + splitDb, pragmas);
+             HikariDataSource reader = SqliteDataSourceConfig.readerPool("jdbc:sqlite:" + splitDb, pragmas, 4)) {
+            seed(writer);
+            splitMs = run(writer, reader, splitDb);
+        }
+
+        log.info("mixed {}% writes, {} ops, {} threads: shared pool {} ms ({} ops/s), reader/writer split {} ms ({} ops/s)",
+                WRITE_PERCENT, OPERATIONS, THREADS,
+                sharedMs, OPERATIONS * 1000 / Math.max(sharedMs, 1),
+                splitMs, OPERATIONS * 1000 / Math.max(splitMs, 1));
+    }
+
+    private long run(DataSource writes, DataSource reads, Path db) throws Exception {
+        AtomicInteger written = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < OPERATIONS; i++) {
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long id = 1 + random.nextInt(ROWS);
+                try {
+                    if (random.nextInt(100) < WRITE_PERCENT) {
+                        update(writes, id);
+                        written.incrementAndGet();
+                    } else {
+                        read(reads, id);
+                    }
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+                return null;
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+
+        assertTrue(unexpected.isEmpty(), () -> db + ": unexpected failures: " + unexpected);
+        assertEquals(written.get(), sum(writes));
+        return elapsed;
+    }
+
+    private static HikariDataSource sharedPool(Path db) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sqlite-shared");
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + db + "?busy_timeout=30000");
+        config.setMaximumPoolSize(THREADS);
+        return new HikariDataSource(config);
+    }
+
+    private static void seed(DataSource ds) throws SQLException {
+        try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("create table items (id integer primary key, name varchar(40) not null, v integer not null)");
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement("insert into items (id, name, v) values (?, ?, 0)")) {
+                for (int i = 1; i <= ROWS; i++) {
+                    ps.setLong(1, i);
+                    ps.setString(2, "item-" + i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            c.commit();
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static void update(DataSource ds, long id) throws SQLException {
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement("update items set v = v + 1 where id = ?")) {
+            ps.setLong(1, id);
+            assertEquals(1, ps.executeUpdate());
+        }
+    }
+
+    private static void read(DataSource ds, long id) throws SQLException {
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement("select name, v from items where id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+            }
+        }
+    }
+
+    private static long sum(DataSource ds) throws SQLException {
+        try (Connection c = ds.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("select sum(v) from items")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Path tempDb() throws IOException {
+        Path db = Files.createTempFile("minicommerce-rw", ".db");
+        db.toFile().deleteOnExit();
+        return db;
+    }
+}
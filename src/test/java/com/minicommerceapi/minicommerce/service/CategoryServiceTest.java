@@ -14,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +26,10 @@ class CategoryServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private CategorySnapshot categorySnapshot;
     @InjectMocks
     private CategoryService categoryService;
 
@@ -77,6 +82,27 @@ class CategoryServiceTest {
         assertThrows(NotFoundException.class, () -> categoryService.get(99L));
     }
 
+    @Test
+    void get_shouldServeFromSnapshot_whenAvailable() {
+        CategoryDtos.CategoryResponse cat = new CategoryDtos.CategoryResponse(4L, "Books", "books");
+        when(categorySnapshot.current()).thenReturn(snapshot(cat));
+        assertEquals(cat, categoryService.get(4L));
+        assertEquals(cat, categoryService.getBySlug("books"));
+        assertEquals(List.of(cat), categoryService.list());
+        assertThrows(NotFoundException.class, () -> categoryService.getBySlug("games"));
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void getBySlug_shouldReadDatabase_whenSnapshotUnavailable() {
+        Category c = new Category();
+        c.setId(4L);
+        c.setName("Books");
+        c.setSlug("books");
+        when(categoryRepository.findBySlug("books")).thenReturn(Optional.of(c));
+        assertEquals(4L, categoryService.getBySlug("books").id());
+    }
+
     @Test
     void update_shouldUpdateAndReturnCategory() {
         Category c = new Category();
@@ -88,6 +114,8 @@ class CategoryServiceTest {
         CategoryDtos.CategoryResponse resp = categoryService.update(3L, req);
         assertEquals("New", resp.name());
         assertEquals(SlugUtil.slugify("New"), resp.slug());
+        verify(productCache).clear();
+        verify(categorySnapshot).markChanged();
     }
 
     @Test
@@ -118,4 +146,8 @@ class CategoryServiceTest {
         when(productRepository.existsByCategoryId(7L)).thenReturn(true);
         assertThrows(ConflictException.class, () -> categoryService.delete(7L));
     }
+
+    private static CategorySnapshot.Snapshot snapshot(CategoryDtos.CategoryResponse c) {
+        return new CategorySnapshot.Snapshot(List.of(c), Map.of(c.id(), c), Map.of(c.slug(), c));
+    }
 }
@@ -0,0 +1,99 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.util.SlugUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CategorySnapshotTest {
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private CategorySnapshot categorySnapshot;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        categorySnapshot = new CategorySnapshot(categoryRepository, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void current_shouldBeNull_beforeFirstLoad() {
+        assertNull(categorySnapshot.current());
+        assertTrue(categorySnapshot.find(1L).isEmpty());
+    }
+
+    @Test
+    void refresh_shouldIndexCategoriesByIdAndSlug() {
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(category(1L, "Books"), category(2L, "Home Garden")));
+        categorySnapshot.refresh();
+
+        CategorySnapshot.Snapshot s = categorySnapshot.current();
+        assertEquals(2, s.all().size());
+        assertEquals("Books", s.byId().get(1L).name());
+        assertEquals(2L, s.bySlug().get("home-garden").id());
+        assertEquals("Books", categorySnapshot.find(1L).orElseThrow().name());
+    }
+
+    @Test
+    void markChanged_shouldHideSnapshotInTransaction_andRebuildAfterCommit() {
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(category(1L, "Books")));
+        categorySnapshot.refresh();
+
+        TransactionSynchronizationManager.initSynchronization();
+        categorySnapshot.markChanged();
+        assertNull(categorySnapshot.current()); // bu transaction kendi yazdigini DB'den okumali
+
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(category(1L, "Books"), category(2L, "Games")));
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        syncs.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(2, categorySnapshot.current().all().size());
+        assertTrue(categorySnapshot.find(2L).isPresent());
+    }
+
+    @Test
+    void markChanged_shouldKeepOldSnapshot_whenTransactionRollsBack() {
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(category(1L, "Books")));
+        categorySnapshot.refresh();
+
+        TransactionSynchronizationManager.initSynchronization();
+        categorySnapshot.markChanged();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(1, categorySnapshot.current().all().size());
+        verify(categoryRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    private static Category category(Long id, String name) {
+        Category c = new Category();
+        c.setId(id);
+        c.setName(name);
+        c.setSlug(SlugUtil.slugify(name));
+        return c;
+    }
+}
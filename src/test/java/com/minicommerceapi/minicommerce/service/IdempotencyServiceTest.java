@@ -0,0 +1,165 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.IdempotencyRecord;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private TransactionRetry transactionRetry;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyService idempotencyService;
+    private final Map<String, IdempotencyRecord> stored = new ConcurrentHashMap<>();
+
+    private final OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(
+            1L, List.of(new OrderDtos.CreateOrderItem(2L, 1)));
+    private final OrderDtos.OrderResponse order = new OrderDtos.OrderResponse(
+            10L, 1L, "CREATED", BigDecimal.TEN, List.of());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, orderService, transactionRetry,
+                transactionTemplate, JsonMapper.builder().build(), Duration.ofHours(1), 100, Duration.ofSeconds(10));
+
+        when(transactionRetry.execute(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(idempotencyRecordRepository.findByKey(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(stored.get(inv.<String>getArgument(0))));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            stored.put(r.getKey(), r);
+            return r;
+        });
+    }
+
+    @Test
+    void createOrder_shouldReplayOriginalOrder_whenKeyReused() {
+        when(orderService.createInCurrentTransaction(req)).thenReturn(order);
+
+        IdempotencyService.Result first = idempotencyService.createOrder("key-1", req);
+        IdempotencyService.Result second = idempotencyService.createOrder("key-1", req);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.order().id(), second.order().id());
+        verify(orderService, times(1)).createInCurrentTransaction(req);
+    }
+
+    @Test
+    void createOrder_shouldRunOrderAndKeyInOneRetriedUnit() {
+        when(orderService.createInCurrentTransaction(req)).thenReturn(order);
+
+        idempotencyService.createOrder("key-1", req);
+
+        verify(transactionRetry).execute(eq("order.create"), any());
+        verify(orderService, never()).create(any());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void createOrder_shouldReplayStoredResponse_notCurrentOrder() {
+        when(orderService.createInCurrentTransaction(req)).thenReturn(order);
+        idempotencyService.createOrder("key-1", req);
+
+        // Bellek onbellegini atlayan yeni instance: kayitli JSON cevap okunur, siparis tekrar sorgulanmaz
+        IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository, orderService,
+                transactionRetry, transactionTemplate, JsonMapper.builder().build(), Duration.ofHours(1), 100, Duration.ofSeconds(10));
+        IdempotencyService.Result replay = restarted.createOrder("key-1", req);
+
+        assertTrue(replay.replayed());
+        assertEquals(order, replay.order());
+        verify(orderService, never()).get(anyLong());
+    }
+
+    @Test
+    void createOrder_shouldReuseExpiredKey_beforeItIsPurged() {
+        IdempotencyRecord old = new IdempotencyRecord();
+        old.setKey("key-1");
+        old.setRequestHash("other");
+        old.setOrderId(5L);
+        ReflectionTestUtils.setField(old, "createdAt", Instant.now().minus(Duration.ofHours(2)));
+        stored.put("key-1", old);
+        when(idempotencyRecordRepository.deleteExpiredKey(eq("key-1"), any())).thenAnswer(inv -> {
+            stored.remove("key-1");
+            return 1;
+        });
+        when(orderService.createInCurrentTransaction(req)).thenReturn(order);
+
+        IdempotencyService.Result result = idempotencyService.createOrder("key-1", req);
+
+        assertFalse(result.replayed());
+        var inOrder = inOrder(idempotencyRecordRepository, orderService);
+        inOrder.verify(idempotencyRecordRepository).deleteExpiredKey(eq("key-1"), any());
+        inOrder.verify(orderService).createInCurrentTransaction(req);
+        inOrder.verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void createOrder_shouldThrowConflict_whenKeyReusedWithDifferentRequest() {
+        when(orderService.createInCurrentTransaction(req)).thenReturn(order);
+        idempotencyService.createOrder("key-1", req);
+
+        OrderDtos.CreateOrderRequest other = new OrderDtos.CreateOrderRequest(
+                1L, List.of(new OrderDtos.CreateOrderItem(2L, 5)));
+        assertThrows(ConflictException.class, () -> idempotencyService.createOrder("key-1", other));
+    }
+
+    @Test
+    void createOrder_shouldRejectInvalidKey() {
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder(" ", req));
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder("x".repeat(101), req));
+    }
+
+    @Test
+    void createOrder_shouldMakeConcurrentDuplicateWaitForFirst() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createInCurrentTransaction(req)).thenAnswer(inv -> {
+            firstStarted.countDown();
+            release.await();
+            return order;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<IdempotencyService.Result> first = pool.submit(() -> idempotencyService.createOrder("key-1", req));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        Future<IdempotencyService.Result> duplicate = pool.submit(() -> idempotencyService.createOrder("key-1", req));
+
+        Thread.sleep(100); // duplicate is now parked on the in-flight request
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+        verify(orderService, times(1)).createInCurrentTransaction(req);
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderBatchWriterTest {
+    private final OrderService orderService = mock(OrderService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final CountDownLatch inBatch = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private OrderBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // Ilk batch release acilana kadar transaction icinde bekler; bu surede gelen siparisler kuyrukta kalir
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            inBatch.countDown();
+            awaitRelease();
+            return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class));
+        });
+        when(orderService.createInCurrentTransaction(any())).thenAnswer(inv -> response(inv.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (writer != null) {
+            writer.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void create_shouldGiveUpQueuedOrder_afterWaitTimeout() throws Exception {
+        writer = startWriter(Duration.ofMillis(100));
+        Future<OrderDtos.OrderResponse> first = callers.submit(() -> writer.create(request(1L)));
+        assertTrue(inBatch.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ConflictException.class, () -> writer.create(request(2L)));
+
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).userId());
+        verify(orderService, never()).createInCurrentTransaction(request(2L));
+    }
+
+    @Test
+    void stop_shouldFailOrdersLeftInQueue() throws Exception {
+        writer = startWriter(Duration.ofSeconds(30));
+        Future<OrderDtos.OrderResponse> first = callers.submit(() -> writer.create(request(1L)));
+        assertTrue(inBatch.await(5, TimeUnit.SECONDS));
+        Future<OrderDtos.OrderResponse> queued = callers.submit(() -> writer.create(request(2L)));
+        Thread.sleep(100); // ikinci siparis kuyruga girsin
+
+        writer.stop();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).userId());
+        assertThrows(IllegalStateException.class, () -> writer.create(request(3L)));
+    }
+
+    private OrderBatchWriter startWriter(Duration waitTimeout) {
+        OrderBatchWriter w = new OrderBatchWriter(orderService, transactionTemplate, mock(EntityManager.class),
+                1, Duration.ZERO, 10, waitTimeout);
+        w.start();
+        return w;
+    }
+
+    // stop() yazar thread'ini interrupt eder; batch yine de release'e kadar surer
+    private void awaitRelease() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                release.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static OrderDtos.CreateOrderRequest request(Long userId) {
+        return new OrderDtos.CreateOrderRequest(userId, List.of(new OrderDtos.CreateOrderItem(1L, 1)), null);
+    }
+
+    private static OrderDtos.OrderResponse response(OrderDtos.CreateOrderRequest req) {
+        return new OrderDtos.OrderResponse(req.userId() * 100, req.userId(), "CREATED", BigDecimal.ONE, List.of());
+    }
+}
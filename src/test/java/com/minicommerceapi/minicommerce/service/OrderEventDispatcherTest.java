@@ -0,0 +1,101 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderEventDispatcherTest {
+    private OrderOutbox orderOutbox;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        orderOutbox = mock(OrderOutbox.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // 1..5 numarali olaylar; read(after, limit) gercek tablo gibi davranir
+        when(orderOutbox.read(anyLong(), anyInt())).thenAnswer(inv -> {
+            long after = inv.getArgument(0);
+            int limit = inv.getArgument(1);
+            List<OrderDtos.OrderEvent> events = LongStream.rangeClosed(after + 1, Math.min(5, after + limit))
+                    .mapToObj(OrderEventDispatcherTest::event)
+                    .toList();
+            return new OrderDtos.OrderEventPage(events, events.isEmpty() ? null : events.get(events.size() - 1).id().toString());
+        });
+        when(orderOutbox.lastEventId()).thenReturn(5L);
+    }
+
+    @Test
+    void dispatch_shouldDeliverInBatches_andStoreOffsetAfterEachBatch() {
+        RecordingSubscriber fulfilment = new RecordingSubscriber("fulfilment", false);
+        when(orderOutbox.offset("fulfilment")).thenReturn(1L);
+        OrderEventDispatcher dispatcher = new OrderEventDispatcher(orderOutbox, List.of(fulfilment), meterRegistry, 2);
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(2L, 3L, 4L, 5L), fulfilment.seen);
+        verify(orderOutbox).commitOffset("fulfilment", 3L);
+        verify(orderOutbox).commitOffset("fulfilment", 5L);
+        assertEquals(4.0, meterRegistry.get("orders.outbox.dispatched").tag("subscriber", "fulfilment").counter().count());
+        assertEquals(0.0, meterRegistry.get("orders.outbox.lag").tag("subscriber", "fulfilment").gauge().value());
+    }
+
+    @Test
+    void dispatch_shouldKeepOffset_whenSubscriberFails_andNotBlockOthers() {
+        RecordingSubscriber broken = new RecordingSubscriber("email", true);
+        RecordingSubscriber analytics = new RecordingSubscriber("analytics", false);
+        OrderEventDispatcher dispatcher = new OrderEventDispatcher(orderOutbox, List.of(broken, analytics), meterRegistry, 10);
+
+        dispatcher.dispatch();
+
+        verify(orderOutbox, never()).commitOffset(eq("email"), anyLong());
+        verify(orderOutbox).commitOffset("analytics", 5L);
+        assertEquals(5, analytics.seen.size());
+        assertEquals(1.0, meterRegistry.get("orders.outbox.failures").tag("subscriber", "email").counter().count());
+        assertEquals(5.0, meterRegistry.get("orders.outbox.lag").tag("subscriber", "email").gauge().value());
+    }
+
+    @Test
+    void dispatch_shouldDoNothing_withoutSubscribers() {
+        new OrderEventDispatcher(orderOutbox, List.of(), meterRegistry, 10).dispatch();
+
+        verifyNoInteractions(orderOutbox);
+    }
+
+    private static OrderDtos.OrderEvent event(long id) {
+        return new OrderDtos.OrderEvent(id, 100 + id, "ORDER_CREATED", Instant.EPOCH, "{}");
+    }
+
+    private static final class RecordingSubscriber implements OrderEventSubscriber {
+        final String name;
+        final boolean failing;
+        final List<Long> seen = new ArrayList<>();
+
+        RecordingSubscriber(String name, boolean failing) {
+            this.name = name;
+            this.failing = failing;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void onEvents(List<OrderDtos.OrderEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("mail server down");
+            }
+            events.forEach(e -> seen.add(e.id()));
+        }
+    }
+}
@@ -15,7 +15,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,6 +30,18 @@ class OrderServiceTest {
     private UserRepository userRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private TransactionRetry transactionRetry;
+    @Mock
+    private StockLedger stockLedger;
+    @Mock
+    private ReservationService reservationService;
+    @Mock
+    private OrderOutbox orderOutbox;
+    @Mock
+    private SalesReportService salesReportService;
     @InjectMocks
     private OrderService orderService;
 
@@ -35,6 +49,9 @@ class OrderServiceTest {
     void setUp() {
         // Use try-with-resources in real code, but for unit test lifecycle, suppress warning
         MockitoAnnotations.openMocks(this);
+        // Tekrar deneme mantigi TransactionRetryTest'te; burada is dogrudan calisir
+        when(transactionRetry.execute(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(stockLedger.reserve(any())).thenReturn(StockLedger.Reservation.NONE);
     }
 
     @Test
@@ -43,6 +60,7 @@ class OrderServiceTest {
         user.setId(1L);
         Product product = new Product();
         product.setId(2L);
+        product.setCategory(category());
         product.setName("Test Product");
         product.setStock(10);
         product.setPrice(BigDecimal.valueOf(100));
@@ -50,7 +68,8 @@ class OrderServiceTest {
         OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(item));
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(Set.of(product.getId()))).thenReturn(List.of(product));
+        when(productRepository.decrementStock(product.getId(), 2)).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order o = invocation.getArgument(0);
             o.setId(123L);
@@ -63,7 +82,10 @@ class OrderServiceTest {
         assertEquals(BigDecimal.valueOf(200), response.total());
         assertEquals(1, response.items().size());
         assertEquals(product.getId(), response.items().get(0).productId());
-        assertEquals(8, product.getStock());
+        verify(productRepository).decrementStock(product.getId(), 2);
+        verify(productCache).evict(product.getId());
+        verify(orderOutbox).append(OrderEventType.ORDER_CREATED, response);
+        verify(salesReportService).orderPlaced(any(Order.class));
     }
 
     @Test
@@ -78,10 +100,47 @@ class OrderServiceTest {
         User user = new User();
         user.setId(1L);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.findAllById(any())).thenReturn(List.of());
         OrderDtos.CreateOrderItem item = new OrderDtos.CreateOrderItem(2L, 1);
         OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(item));
-        assertThrows(NotFoundException.class, () -> orderService.create(req));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> orderService.create(req));
+        assertEquals("Product not found: 2", ex.getMessage());
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void create_shouldLoadProductsOnceAndMergeDuplicateLines() {
+        User user = new User();
+        user.setId(1L);
+        Product p1 = new Product();
+        p1.setId(2L);
+        p1.setCategory(category());
+        p1.setName("P1");
+        p1.setPrice(BigDecimal.valueOf(10));
+        Product p2 = new Product();
+        p2.setId(3L);
+        p2.setCategory(category());
+        p2.setName("P2");
+        p2.setPrice(BigDecimal.valueOf(5));
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(
+                new OrderDtos.CreateOrderItem(2L, 1),
+                new OrderDtos.CreateOrderItem(3L, 1),
+                new OrderDtos.CreateOrderItem(2L, 2)));
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of(p1, p2));
+        when(productRepository.decrementStock(anyLong(), anyInt())).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderDtos.OrderResponse response = orderService.create(req);
+        assertEquals(2, response.items().size());
+        assertEquals(2L, response.items().get(0).productId());
+        assertEquals(3, response.items().get(0).quantity());
+        assertEquals(BigDecimal.valueOf(35), response.total());
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository).decrementStock(2L, 3);
+        verify(productRepository).decrementStock(3L, 1);
     }
 
     @Test
@@ -92,7 +151,7 @@ class OrderServiceTest {
         product.setId(2L);
         product.setStock(10);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
         // Test with negative and zero quantity, but avoid record validation error by catching exception
         assertThrows(BadRequestException.class, () -> {
             OrderDtos.CreateOrderItem item = new OrderDtos.CreateOrderItem(product.getId(), 1); // valid for record
@@ -110,10 +169,80 @@ class OrderServiceTest {
         product.setId(2L);
         product.setStock(1);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(productRepository.decrementStock(product.getId(), 2)).thenReturn(0);
         OrderDtos.CreateOrderItem item = new OrderDtos.CreateOrderItem(product.getId(), 2);
         OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(item));
         assertThrows(BadRequestException.class, () -> orderService.create(req));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void create_shouldRejectWithoutTouchingDatabase_whenLedgerIsSoldOut() {
+        when(stockLedger.reserve(Map.of(2L, 2))).thenThrow(new BadRequestException("Insufficient stock for product 2"));
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 2)));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> orderService.create(req));
+        assertEquals("Insufficient stock for product 2", ex.getMessage());
+        verifyNoInteractions(userRepository, productRepository, orderRepository);
+    }
+
+    @Test
+    void create_shouldConsumeReservation_insteadOfTakingStock() {
+        User user = new User();
+        user.setId(1L);
+        Product product = new Product();
+        product.setId(2L);
+        product.setCategory(category());
+        product.setPrice(BigDecimal.TEN);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 3)), 7L);
+
+        OrderDtos.OrderResponse response = orderService.create(req);
+
+        assertEquals(BigDecimal.valueOf(30), response.total());
+        verify(reservationService).consumeInCurrentTransaction(7L, 1L, Map.of(2L, 3));
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+        verify(stockLedger, never()).reserve(any());
+    }
+
+    @Test
+    void create_shouldReportDrift_whenDatabaseRejectsReservedStock() {
+        User user = new User();
+        user.setId(1L);
+        Product product = new Product();
+        product.setId(2L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(productRepository.decrementStock(2L, 2)).thenReturn(0);
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 2)));
+
+        assertThrows(BadRequestException.class, () -> orderService.create(req));
+        verify(stockLedger).reportDrift(2L);
+    }
+
+    @Test
+    void createInCurrentTransaction_shouldReleaseLedger_whenFlushFails() {
+        StockLedger.Reservation held = mock(StockLedger.Reservation.class);
+        when(stockLedger.reserve(any())).thenReturn(held);
+        User user = new User();
+        user.setId(1L);
+        Product product = new Product();
+        product.setId(2L);
+        product.setCategory(category());
+        product.setPrice(BigDecimal.TEN);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(productRepository.decrementStock(2L, 1)).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new IllegalStateException("flush failed")).when(orderRepository).flush();
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 1)));
+
+        assertThrows(IllegalStateException.class, () -> orderService.createInCurrentTransaction(req));
+        verify(held).release();
+        verify(held, never()).completeWithTransaction();
     }
 
     @Test
@@ -134,10 +263,40 @@ class OrderServiceTest {
         item.setUnitPrice(BigDecimal.valueOf(100));
         item.setLineTotal(BigDecimal.valueOf(100));
         order.addItem(item);
-        when(orderRepository.findAll()).thenReturn(List.of(order));
-        List<OrderDtos.OrderResponse> responses = orderService.list();
+        when(orderRepository.findPage(isNull(), any(), eq(Long.MAX_VALUE), any())).thenReturn(List.of(order));
+        OrderDtos.OrderPage page = orderService.list(null, null, null, OrderService.DEFAULT_PAGE_SIZE);
+        List<OrderDtos.OrderResponse> responses = page.items();
         assertEquals(1, responses.size());
         assertEquals(order.getId(), responses.get(0).id());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void list_shouldSeekByUserAndReturnNextCursor() {
+        User user = new User();
+        user.setId(2L);
+        List<Order> rows = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            Order o = new Order();
+            o.setId(id);
+            o.setUser(user);
+            o.setTotal(BigDecimal.ONE);
+            rows.add(o);
+        }
+        Instant cursorTime = Instant.ofEpochMilli(1_700_000_000_000L);
+        when(orderRepository.findUserPage(eq(2L), eq(OrderStatus.PAID), eq(cursorTime), eq(9L), any())).thenReturn(rows);
+
+        OrderDtos.OrderPage page = orderService.list(2L, "paid", "1700000000000:9", 2);
+        assertEquals(2, page.items().size());
+        Order last = rows.get(1);
+        assertEquals(last.getCreatedAt().toEpochMilli() + ":" + last.getId(), page.nextCursor());
+    }
+
+    @Test
+    void list_shouldRejectInvalidArguments() {
+        assertThrows(BadRequestException.class, () -> orderService.list(null, null, "garbage", 10));
+        assertThrows(BadRequestException.class, () -> orderService.list(null, "SHIPPED", null, 10));
+        assertThrows(BadRequestException.class, () -> orderService.list(null, null, null, 0));
     }
 
     @Test
@@ -172,6 +331,8 @@ class OrderServiceTest {
         OrderDtos.PatchOrderRequest req = new OrderDtos.PatchOrderRequest("PAID");
         OrderDtos.OrderResponse response = orderService.patchStatus(order.getId(), req);
         assertEquals("PAID", response.status());
+        verify(orderOutbox).append(OrderEventType.ORDER_STATUS_CHANGED, response);
+        verify(salesReportService).statusChanged(order);
     }
 
     @Test
@@ -213,15 +374,23 @@ class OrderServiceTest {
 
     @Test
     void delete_shouldDeleteOrder() {
-        when(orderRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(orderRepository).deleteById(1L);
+        Order order = new Order();
+        order.setId(1L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
         assertDoesNotThrow(() -> orderService.delete(1L));
-        verify(orderRepository).deleteById(1L);
+        verify(salesReportService).orderDeleted(order);
+        verify(orderRepository).delete(order);
     }
 
     @Test
     void delete_shouldThrowIfOrderNotFound() {
-        when(orderRepository.existsById(1L)).thenReturn(false);
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> orderService.delete(1L));
     }
+
+    private static Category category() {
+        Category c = new Category();
+        c.setId(1L);
+        return c;
+    }
 }
@@ -0,0 +1,71 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(2, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    void put_shouldCacheProduct_whenNoEvictionSinceStamp() {
+        productCache.put(product(1L), productCache.stamp());
+        assertEquals("P1", productCache.get(1L).name());
+    }
+
+    @Test
+    void put_shouldDropStaleValue_whenEvictedAfterStamp() {
+        long stamp = productCache.stamp();
+        productCache.evict(1L); // concurrent write committed while the reader was loading
+        productCache.put(product(1L), stamp);
+        assertNull(productCache.get(1L));
+    }
+
+    @Test
+    void evict_shouldRemoveEntries() {
+        productCache.put(product(1L), productCache.stamp());
+        productCache.put(product(2L), productCache.stamp());
+        productCache.evictAll(List.of(1L));
+        assertNull(productCache.get(1L));
+        assertNotNull(productCache.get(2L));
+
+        productCache.clear();
+        assertNull(productCache.get(2L));
+    }
+
+    @Test
+    void cache_shouldStayWithinMaximumSize() {
+        for (long id = 1; id <= 10; id++) {
+            productCache.put(product(id), productCache.stamp());
+        }
+        assertTrue(productCache.size() <= 2);
+    }
+
+    @Test
+    void metrics_shouldCountHitsAndMisses() {
+        productCache.put(product(1L), productCache.stamp());
+        productCache.get(1L);
+        productCache.get(2L);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count());
+    }
+
+    private ProductDtos.ProductResponse product(Long id) {
+        return new ProductDtos.ProductResponse(id, "P" + id, "SKU-" + id, new BigDecimal("1.00"), 1, 1L, "C", null, 0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceTest {
+    private static final String CSV = """
+            name,sku,price,stock,categoryId
+            Mouse,SKU-1,10.00,5,1
+            Keyboard,SKU-2,20.00,5,1
+            Monitor,SKU-3,30.00,5,1
+            """;
+
+    private ProductRepository productRepository;
+    private TransactionRetry transactionRetry;
+    private ProductImportService service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        Validator validator = mock(Validator.class);
+        transactionRetry = mock(TransactionRetry.class);
+        Category category = new Category();
+        category.setId(1L);
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+        when(productRepository.findExistingSkus(any())).thenReturn(List.of());
+        when(validator.validate(any(ProductDtos.CreateProductRequest.class))).thenReturn(Set.of());
+        service = new ProductImportService(productRepository, categoryRepository, mock(ProductSearchIndex.class),
+                mock(SkuSuggestIndex.class), transactionRetry, validator, JsonMapper.builder().build(), 2, 100);
+    }
+
+    @Test
+    void importProducts_shouldReportChunk_whenRetriesAreExhausted_andContinue() throws Exception {
+        when(transactionRetry.execute(anyString(), any()))
+                .thenThrow(new ConflictException("Concurrent update, please retry"))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+
+        ProductDtos.BulkImportReport report = service.importProducts(csv(), ProductImportService.Format.CSV);
+
+        assertEquals(3, report.rows());
+        assertEquals(1, report.created());
+        assertEquals(2, report.failed());
+        assertEquals(List.of(2L, 3L), report.errors().stream().map(ProductDtos.BulkImportError::line).toList());
+        assertEquals("Database busy, please retry", report.errors().get(0).message());
+        verify(productRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void importProducts_shouldReportChunk_whenWriteFailsUnexpectedly() throws Exception {
+        when(transactionRetry.execute(anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(productRepository.saveAll(any()))
+                .thenThrow(new CannotAcquireLockException("database is locked"))
+                .thenReturn(List.of());
+
+        ProductDtos.BulkImportReport report = service.importProducts(csv(), ProductImportService.Format.CSV);
+
+        assertEquals(1, report.created());
+        assertEquals(List.of("SKU-1", "SKU-2"), report.errors().stream().map(ProductDtos.BulkImportError::sku).toList());
+        assertEquals("Row could not be saved", report.errors().get(1).message());
+    }
+
+    private static ByteArrayInputStream csv() {
+        return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+    }
+}
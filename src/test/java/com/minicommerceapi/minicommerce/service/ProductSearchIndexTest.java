@@ -0,0 +1,110 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(mock(ProductRepository.class), mock(PlatformTransactionManager.class));
+        index.put(1L, "Çelik Kupa 330ml", "KUP-001");
+        index.put(2L, "Kupa", "KUP-002");
+        index.put(3L, "Cam Bardak", "BRD-001");
+        index.put(4L, "Büyük Çelik Kupa Seti", "SET-KUP");
+    }
+
+    @Test
+    void search_shouldMatchNormalizedNameTokens_andRankTighterMatchesFirst() {
+        ProductSearchIndex.Hits hits = index.search("celik KUPA", 0, 10);
+        assertEquals(List.of(1L, 4L), hits.ids());
+        assertEquals(2, hits.total());
+        assertFalse(hits.totalIsLowerBound());
+    }
+
+    @Test
+    void search_shouldRankSkuMatchesAboveNameMatches() {
+        index.put(5L, "Kup Kup", "KUP");
+        ProductSearchIndex.Hits hits = index.search("kup", 0, 10);
+        // once tam SKU, sonra SKU sirasiyla prefix'ler, en son sadece isimden eslesenler
+        assertEquals(List.of(5L, 1L, 2L), hits.ids());
+    }
+
+    @Test
+    void search_shouldKeepSkusThatDifferOnlyInCase() {
+        index.put(5L, "Ayna", "AB-1");
+        index.put(6L, "Ayna", "ab-1");
+        assertEquals(List.of(5L, 6L), index.search("ab-1", 0, 10).ids());
+
+        index.remove(5L);
+        assertEquals(List.of(6L), index.search("AB-1", 0, 10).ids());
+    }
+
+    @Test
+    void search_shouldStopAfterTheRequestedPage_andReportALowerBound() {
+        for (long id = 10; id < 1010; id++) {
+            index.put(id, "Kase " + id, "KSE-" + id);
+        }
+        ProductSearchIndex.Hits hits = index.search("kase", 20, 10);
+        assertEquals(10, hits.ids().size());
+        assertEquals(31, hits.total());
+        assertTrue(hits.totalIsLowerBound());
+    }
+
+    @Test
+    void search_shouldPaginate() {
+        assertEquals(List.of(2L), index.search("kupa", 0, 1).ids());
+        assertEquals(List.of(1L), index.search("kupa", 1, 1).ids());
+        assertTrue(index.search("kupa", 0, 1).totalIsLowerBound());
+        assertEquals(3, index.search("kupa", 0, 10).total());
+        assertFalse(index.search("kupa", 0, 10).totalIsLowerBound());
+        assertTrue(index.search("kupa", 5, 10).ids().isEmpty());
+    }
+
+    @Test
+    void put_shouldReplaceOldTokens_andRemoveShouldDropProduct() {
+        index.put(3L, "Porselen Tabak", "TBK-001");
+        assertTrue(index.search("bardak", 0, 10).ids().isEmpty());
+        assertEquals(List.of(3L), index.search("tabak", 0, 10).ids());
+
+        index.remove(3L);
+        assertTrue(index.search("tabak", 0, 10).ids().isEmpty());
+        assertTrue(index.search("TBK", 0, 10).ids().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void load_shouldNotOverwriteUpdatesCommittedWhileLoading() {
+        ProductRepository repo = mock(ProductRepository.class);
+        ProductSearchIndex loading = new ProductSearchIndex(repo, mock(PlatformTransactionManager.class));
+        when(repo.streamLabels()).thenReturn(Stream.of(
+                new ProductDtos.ProductLabel(1L, "Eski Kupa", "KUP-001"),
+                new ProductDtos.ProductLabel(2L, "Cam Bardak", "BRD-001"),
+                new ProductDtos.ProductLabel(3L, "Tabak", "TBK-001")
+        ).peek(l -> {
+            if (l.id() == 1L) {
+                // Yukleme ortasinda commit edilen guncelleme ve silme; yuklenen eski satirlar bunlari ezmemeli
+                loading.put(2L, "Yeni Bardak", "BRD-001");
+                loading.remove(3L);
+            }
+        }));
+
+        loading.load();
+
+        assertEquals(List.of(2L), loading.search("yeni", 0, 10).ids());
+        assertTrue(loading.search("cam", 0, 10).ids().isEmpty());
+        assertTrue(loading.search("tabak", 0, 10).ids().isEmpty());
+        assertEquals(2, loading.size());
+    }
+}
@@ -2,20 +2,26 @@ package com.minicommerceapi.minicommerce.service;
 
 import com.minicommerceapi.minicommerce.domain.Category;
 import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRatingStatsRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +31,20 @@ class ProductServiceTest {
     private ProductRepository productRepository;
     @Mock
     private CategoryRepository categoryRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private ProductRatingStatsRepository productRatingStatsRepository;
+    @Mock
+    private CategorySnapshot categorySnapshot;
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    @Mock
+    private SkuSuggestIndex skuSuggestIndex;
+    @Mock
+    private TransactionRetry transactionRetry;
+    @Mock
+    private StockLedger stockLedger;
     @InjectMocks
     private ProductService productService;
 
@@ -32,6 +52,8 @@ class ProductServiceTest {
     void setUp() {
         // Suppress try-with-resources warning for MockitoAnnotations in test lifecycle
         MockitoAnnotations.openMocks(this);
+        // Tekrar deneme mantigi TransactionRetryTest'te; burada is dogrudan calisir
+        when(transactionRetry.execute(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -59,6 +81,7 @@ class ProductServiceTest {
         assertEquals(10, resp.stock());
         assertEquals(1L, resp.categoryId());
         assertEquals("TestCat", resp.categoryName());
+        verify(productSearchIndex).indexAfterCommit(1L, "Test Product", "SKU123");
     }
 
     @Test
@@ -76,21 +99,24 @@ class ProductServiceTest {
         assertThrows(NotFoundException.class, () -> productService.create(req));
     }
 
+    @Test
+    void create_shouldThrowNotFoundException_whenCategoryDeletedButStillInSnapshot() {
+        ProductDtos.CreateProductRequest req = new ProductDtos.CreateProductRequest("Test Product", "SKU123", new BigDecimal("100.0"), 10, 1L);
+        when(productRepository.existsBySku("SKU123")).thenReturn(false);
+        when(categorySnapshot.find(1L)).thenReturn(Optional.of(new CategoryDtos.CategoryResponse(1L, "Cat", "cat")));
+        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> productService.create(req));
+        verify(productRepository, never()).save(any());
+    }
+
     @Test
     void list_shouldReturnAllProducts_whenCategoryIdNull() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("C");
-        Product p = mock(Product.class);
-        when(productRepository.findAll()).thenReturn(List.of(p));
-        when(p.getCategory()).thenReturn(category);
-        when(p.getId()).thenReturn(1L);
-        when(p.getName()).thenReturn("P");
-        when(p.getSku()).thenReturn("S");
-        when(p.getPrice()).thenReturn(new BigDecimal("1.0"));
-        when(p.getStock()).thenReturn(1);
-        List<ProductDtos.ProductResponse> result = productService.list(null);
+        ProductDtos.ProductResponse row = new ProductDtos.ProductResponse(1L, "P", "S", new BigDecimal("1.0"), 1, 1L, "C", null, 0);
+        when(productRepository.findPage(eq(0L), any(Limit.class))).thenReturn(List.of(row));
+        ProductDtos.ProductPage page = productService.list(null, null, ProductService.DEFAULT_PAGE_SIZE);
+        List<ProductDtos.ProductResponse> result = page.items();
         assertEquals(1, result.size());
+        assertNull(page.nextCursor());
         ProductDtos.ProductResponse resp = result.get(0);
         assertEquals(1L, resp.categoryId());
         assertEquals("C", resp.categoryName());
@@ -98,38 +124,77 @@ class ProductServiceTest {
 
     @Test
     void list_shouldReturnProductsByCategory_whenCategoryIdGiven() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("C");
-        Product p = mock(Product.class);
-        when(productRepository.findByCategoryId(1L)).thenReturn(List.of(p));
-        when(p.getCategory()).thenReturn(category);
-        when(p.getId()).thenReturn(1L);
-        when(p.getName()).thenReturn("P");
-        when(p.getSku()).thenReturn("S");
-        when(p.getPrice()).thenReturn(new BigDecimal("1.0"));
-        when(p.getStock()).thenReturn(1);
-        List<ProductDtos.ProductResponse> result = productService.list(1L);
+        ProductDtos.ProductResponse row = new ProductDtos.ProductResponse(1L, "P", "S", new BigDecimal("1.0"), 1, 1L, "C", null, 0);
+        when(productRepository.findPageByCategory(eq(1L), eq(0L), any(Limit.class))).thenReturn(List.of(row));
+        List<ProductDtos.ProductResponse> result = productService.list(1L, null, ProductService.DEFAULT_PAGE_SIZE).items();
         assertEquals(1, result.size());
         ProductDtos.ProductResponse resp = result.get(0);
         assertEquals(1L, resp.categoryId());
         assertEquals("C", resp.categoryName());
     }
 
+    @Test
+    void list_shouldReturnNextCursor_whenMoreRowsThanLimit() {
+        List<ProductDtos.ProductResponse> rows = new ArrayList<>();
+        for (long id = 11; id <= 13; id++) {
+            rows.add(new ProductDtos.ProductResponse(id, "P" + id, "S" + id, new BigDecimal("1.0"), 1, 1L, "C", null, 0));
+        }
+        when(productRepository.findPage(eq(10L), any(Limit.class))).thenReturn(rows);
+
+        ProductDtos.ProductPage page = productService.list(null, 10L, 2);
+        assertEquals(2, page.items().size());
+        assertEquals("12", page.nextCursor());
+    }
+
+    @Test
+    void list_shouldCarryPriceInCursor_forPriceSorts() {
+        List<ProductDtos.ProductResponse> rows = List.of(
+                new ProductDtos.ProductResponse(7L, "A", "S7", new BigDecimal("20.00"), 1, 1L, "C", null, 0),
+                new ProductDtos.ProductResponse(9L, "B", "S9", new BigDecimal("25.00"), 1, 1L, "C", null, 0));
+        ProductDtos.ProductCursor after = new ProductDtos.ProductCursor(new BigDecimal("19.50"), 3L);
+        when(productRepository.findResponses(any(), eq(ProductDtos.ProductSort.PRICE_ASC), eq(after), eq(2))).thenReturn(rows);
+
+        ProductDtos.ProductPage page = productService.list(new ProductDtos.ProductFilter(null, null, null, null), ProductDtos.ProductSort.PRICE_ASC, "19.50:3", 1);
+
+        assertEquals("20.00:7", page.nextCursor());
+    }
+
+    @Test
+    void list_shouldRejectInvalidCursor() {
+        assertThrows(BadRequestException.class,
+                () -> productService.list(new ProductDtos.ProductFilter(null, null, null, null), ProductDtos.ProductSort.PRICE_ASC, "7", 10));
+        assertThrows(BadRequestException.class,
+                () -> productService.list(new ProductDtos.ProductFilter(null, null, null, null), ProductDtos.ProductSort.ID, "abc", 10));
+    }
+
+    @Test
+    void list_shouldThrowBadRequestException_whenLimitOutOfRange() {
+        assertThrows(BadRequestException.class, () -> productService.list(null, null, 0));
+        assertThrows(BadRequestException.class, () -> productService.list(null, null, ProductService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void list_shouldUseCriteriaQuery_whenPriceFilterOrSortGiven() {
+        ProductDtos.ProductResponse row = new ProductDtos.ProductResponse(1L, "P", "S", new BigDecimal("15.0"), 1, 1L, "C", null, 0);
+        when(productRepository.findResponses(any(), eq(ProductDtos.ProductSort.PRICE_DESC), isNull(), eq(11))).thenReturn(List.of(row));
+        ProductDtos.ProductFilter filter = new ProductDtos.ProductFilter(1L, new BigDecimal("10"), null, true);
+
+        ProductDtos.ProductPage page = productService.list(filter, ProductDtos.ProductSort.PRICE_DESC, null, 10);
+
+        assertEquals(List.of(row), page.items());
+        verify(productRepository, never()).findPageByCategory(any(), any(), any());
+    }
+
+    @Test
+    void list_shouldThrowBadRequestException_whenMinPriceAboveMaxPrice() {
+        ProductDtos.ProductFilter filter = new ProductDtos.ProductFilter(null, new BigDecimal("10"), new BigDecimal("5"), null);
+        assertThrows(BadRequestException.class, () -> productService.list(filter, ProductDtos.ProductSort.ID, null, 10));
+    }
+
     @Test
     void get_shouldReturnProduct_whenExists() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("C");
-        Product p = mock(Product.class);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(p));
-        when(p.getCategory()).thenReturn(category);
-        when(p.getId()).thenReturn(1L);
-        when(p.getName()).thenReturn("P");
-        when(p.getSku()).thenReturn("S");
-        when(p.getPrice()).thenReturn(new BigDecimal("1.0"));
-        when(p.getStock()).thenReturn(1);
-        // No need to stub getCategory().getId() or getCategory().getName() on the mock, use real Category
+        ProductDtos.ProductResponse row = new ProductDtos.ProductResponse(1L, "P", "S", new BigDecimal("1.0"), 1, 1L, "C", null, 0);
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(row));
         ProductDtos.ProductResponse resp = productService.get(1L);
         assertEquals(1L, resp.id());
         assertEquals("P", resp.name());
@@ -138,11 +203,21 @@ class ProductServiceTest {
         assertEquals(1, resp.stock());
         assertEquals(1L, resp.categoryId());
         assertEquals("C", resp.categoryName());
+        verify(productRepository, never()).findById(anyLong());
+        verify(productCache).put(eq(row), anyLong());
+    }
+
+    @Test
+    void get_shouldServeFromCache_whenCached() {
+        ProductDtos.ProductResponse cached = new ProductDtos.ProductResponse(1L, "P", "S", new BigDecimal("1.0"), 1, 1L, "C", null, 0);
+        when(productCache.get(1L)).thenReturn(cached);
+        assertSame(cached, productService.get(1L));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     void get_shouldThrowNotFoundException_whenNotExists() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> productService.get(1L));
     }
 
@@ -172,6 +247,10 @@ class ProductServiceTest {
         assertEquals(10, resp.stock());
         assertEquals(2L, resp.categoryId());
         assertEquals("C2", resp.categoryName());
+        verify(productCache).evict(1L);
+        verify(productSearchIndex).indexAfterCommit(1L, "New", "SKU2");
+        verify(skuSuggestIndex).putAfterCommit(1L, "SKU2");
+        verify(stockLedger).invalidateAfterCommit(1L);
     }
 
     @Test
@@ -210,6 +289,10 @@ class ProductServiceTest {
         doNothing().when(productRepository).deleteById(1L);
         assertDoesNotThrow(() -> productService.delete(1L));
         verify(productRepository, times(1)).deleteById(1L);
+        verify(productCache).evict(1L);
+        verify(productSearchIndex).removeAfterCommit(1L);
+        verify(skuSuggestIndex).removeAfterCommit(1L);
+        verify(stockLedger).invalidateAfterCommit(1L);
     }
 
     @Test
@@ -217,4 +300,55 @@ class ProductServiceTest {
         when(productRepository.existsById(1L)).thenReturn(false);
         assertThrows(NotFoundException.class, () -> productService.delete(1L));
     }
+
+    @Test
+    void search_shouldKeepIndexOrderAndSkipMissingRows() {
+        when(productSearchIndex.search("kupa", 0, 2)).thenReturn(new ProductSearchIndex.Hits(List.of(3L, 9L), 3, true));
+        ProductDtos.ProductResponse r3 = new ProductDtos.ProductResponse(3L, "Kupa", "K-3", BigDecimal.ONE, 1, 1L, "C", null, 0);
+        when(productRepository.findResponsesByIds(List.of(3L, 9L))).thenReturn(List.of(r3));
+
+        ProductDtos.ProductPage page = productService.search("kupa", 0, 2);
+
+        assertEquals(List.of(r3), page.items());
+        assertEquals("2", page.nextCursor());
+    }
+
+    @Test
+    void search_shouldThrowBadRequestException_whenQueryBlank() {
+        assertThrows(BadRequestException.class, () -> productService.search(" ", 0, 10));
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void search_shouldRejectOffsetAboveMaximum() {
+        assertThrows(BadRequestException.class, () -> productService.search("kupa", ProductService.MAX_SEARCH_OFFSET + 1, 10));
+        assertThrows(BadRequestException.class, () -> productService.search("kupa", Integer.MAX_VALUE, 10));
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void suggestSkus_shouldThrowBadRequestException_whenLimitOutOfRange() {
+        assertThrows(BadRequestException.class, () -> productService.suggestSkus("SKU", 0));
+        assertThrows(BadRequestException.class, () -> productService.suggestSkus("SKU", ProductService.MAX_SUGGESTIONS + 1));
+        verifyNoInteractions(skuSuggestIndex);
+    }
+
+    @Test
+    void getAll_shouldKeepRequestOrder_useCacheAndReportMissing() {
+        ProductDtos.ProductResponse r1 = new ProductDtos.ProductResponse(1L, "P1", "S1", BigDecimal.ONE, 1, 1L, "C", null, 0);
+        ProductDtos.ProductResponse r2 = new ProductDtos.ProductResponse(2L, "P2", "S2", BigDecimal.ONE, 1, 1L, "C", null, 0);
+        when(productCache.get(2L)).thenReturn(r2);
+        when(productRepository.findResponsesByIds(List.of(3L, 1L))).thenReturn(List.of(r1));
+
+        ProductDtos.BatchGetResponse resp = productService.getAll(List.of(3L, 2L, 1L, 2L));
+
+        assertEquals(List.of(r2, r1), resp.items());
+        assertEquals(List.of(3L), resp.missingIds());
+        verify(productCache).put(eq(r1), anyLong());
+    }
+
+    @Test
+    void getAll_shouldThrowBadRequestException_whenIdsEmpty() {
+        assertThrows(BadRequestException.class, () -> productService.getAll(List.of()));
+    }
 }
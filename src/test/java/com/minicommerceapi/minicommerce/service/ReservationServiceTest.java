@@ -0,0 +1,171 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.*;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ReservationDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReservationRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReservationServiceTest {
+    private ReservationRepository reservationRepository;
+    private UserRepository userRepository;
+    private ProductRepository productRepository;
+    private ProductCache productCache;
+    private StockLedger stockLedger;
+    private SimpleMeterRegistry meterRegistry;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        userRepository = mock(UserRepository.class);
+        productRepository = mock(ProductRepository.class);
+        productCache = mock(ProductCache.class);
+        stockLedger = mock(StockLedger.class);
+        TransactionRetry transactionRetry = mock(TransactionRetry.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionRetry.execute(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(stockLedger.reserve(any())).thenReturn(StockLedger.Reservation.NONE);
+        reservationService = new ReservationService(reservationRepository, userRepository, productRepository, productCache,
+                stockLedger, transactionRetry, mock(PlatformTransactionManager.class), meterRegistry,
+                Duration.ofMinutes(15), Duration.ofMinutes(60), Duration.ofSeconds(1), 64, 500);
+    }
+
+    @Test
+    void create_shouldTakeStock_andSaveHeldReservation() {
+        User user = user(1L);
+        Product product = new Product();
+        product.setId(2L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(Set.of(2L))).thenReturn(List.of(product));
+        when(productRepository.decrementStock(2L, 3)).thenReturn(1);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> {
+            Reservation r = inv.getArgument(0);
+            r.setId(9L);
+            return r;
+        });
+
+        ReservationDtos.ReservationResponse resp = reservationService.create(
+                new ReservationDtos.CreateReservationRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 3)), null));
+
+        assertEquals(9L, resp.id());
+        assertEquals("HELD", resp.status());
+        assertEquals(3, resp.items().get(0).quantity());
+        assertTrue(resp.expiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(14))));
+        verify(stockLedger).reserve(Map.of(2L, 3));
+        verify(productCache).evict(2L);
+    }
+
+    @Test
+    void create_shouldRejectHoldLongerThanMaximum() {
+        ReservationDtos.CreateReservationRequest req =
+                new ReservationDtos.CreateReservationRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 1)), 61);
+
+        assertThrows(BadRequestException.class, () -> reservationService.create(req));
+        verifyNoInteractions(productRepository, reservationRepository);
+    }
+
+    @Test
+    void create_shouldReleaseLedger_whenStockIsInsufficient() {
+        StockLedger.Reservation held = mock(StockLedger.Reservation.class);
+        when(stockLedger.reserve(any())).thenReturn(held);
+        Product product = new Product();
+        product.setId(2L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(productRepository.decrementStock(2L, 5)).thenReturn(0);
+
+        assertThrows(BadRequestException.class, () -> reservationService.create(
+                new ReservationDtos.CreateReservationRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 5)), 5)));
+
+        verify(held).release();
+        verify(stockLedger).reportDrift(2L);
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void consume_shouldMarkReservationConsumed_whenItemsMatch() {
+        when(reservationRepository.findById(9L)).thenReturn(Optional.of(heldReservation(9L, 1L, 2L, 3)));
+        when(reservationRepository.transition(eq(List.of(9L)), eq(ReservationStatus.HELD), eq(ReservationStatus.CONSUMED), any()))
+                .thenReturn(1);
+
+        assertDoesNotThrow(() -> reservationService.consumeInCurrentTransaction(9L, 1L, Map.of(2L, 3)));
+    }
+
+    @Test
+    void consume_shouldRejectMismatchOtherUserAndExpired() {
+        when(reservationRepository.findById(9L)).thenReturn(Optional.of(heldReservation(9L, 1L, 2L, 3)));
+
+        assertThrows(BadRequestException.class, () -> reservationService.consumeInCurrentTransaction(9L, 1L, Map.of(2L, 2)));
+        assertThrows(BadRequestException.class, () -> reservationService.consumeInCurrentTransaction(9L, 5L, Map.of(2L, 3)));
+
+        when(reservationRepository.transition(any(), any(), any(), any())).thenReturn(0);
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> reservationService.consumeInCurrentTransaction(9L, 1L, Map.of(2L, 3)));
+        assertEquals("Reservation has expired", ex.getMessage());
+    }
+
+    @Test
+    void expire_shouldReturnStockSummedPerProduct_forDueReservationsOnly() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(reservationRepository.findDueIds(eq(ids), eq(ReservationStatus.HELD), any())).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.sumQuantitiesByProduct(List.of(1L, 2L))).thenReturn(List.of(
+                new ReservationDtos.HeldQuantity(10L, 5L),
+                new ReservationDtos.HeldQuantity(11L, 1L)));
+
+        assertEquals(2, reservationService.expire(ids));
+
+        verify(reservationRepository).transition(List.of(1L, 2L), ReservationStatus.HELD, ReservationStatus.EXPIRED, null);
+        verify(productRepository).incrementStock(10L, 5);
+        verify(productRepository).incrementStock(11L, 1);
+        verify(stockLedger).invalidateAfterCommit(10L);
+        verify(productCache).evict(11L);
+        assertEquals(2.0, meterRegistry.get("reservations.expired").counter().count());
+    }
+
+    @Test
+    void expire_shouldDoNothing_whenReservationsWereConsumed() {
+        when(reservationRepository.findDueIds(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, reservationService.expire(List.of(1L)));
+
+        verify(reservationRepository, never()).transition(any(), any(), any(), any());
+        verify(productRepository, never()).incrementStock(anyLong(), anyInt());
+    }
+
+    private static User user(Long id) {
+        User u = new User();
+        u.setId(id);
+        return u;
+    }
+
+    private static Reservation heldReservation(Long id, Long userId, Long productId, int quantity) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setUser(user(userId));
+        r.setExpiresAt(Instant.now().plus(Duration.ofMinutes(5)));
+        Product p = new Product();
+        p.setId(productId);
+        ReservationItem item = new ReservationItem();
+        item.setProduct(p);
+        item.setQuantity(quantity);
+        r.addItem(item);
+        return r;
+    }
+}
@@ -5,6 +5,7 @@ import com.minicommerceapi.minicommerce.domain.Review;
 import com.minicommerceapi.minicommerce.domain.User;
 import com.minicommerceapi.minicommerce.dto.ReviewDtos;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.ProductRatingStatsRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import com.minicommerceapi.minicommerce.repo.ReviewRepository;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
@@ -28,6 +29,10 @@ class ReviewServiceTest {
     private ProductRepository productRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ProductRatingStatsRepository productRatingStatsRepository;
+    @Mock
+    private ProductCache productCache;
     @InjectMocks
     private ReviewService reviewService;
 
@@ -54,6 +59,8 @@ class ReviewServiceTest {
         assertEquals(2L, resp.productId());
         assertEquals(5, resp.rating());
         assertEquals("Great!", resp.comment());
+        verify(productRatingStatsRepository).applyDelta(2L, 1, 5, 0, 0, 0, 0, 1);
+        verify(productCache).evict(2L);
     }
 
     @Test
@@ -121,6 +128,17 @@ class ReviewServiceTest {
         assertEquals(5, review.getRating());
         assertEquals("updated", review.getComment());
         assertEquals(1L, resp.id());
+        verify(productRatingStatsRepository).applyDelta(2L, 0, 2, 0, 0, -1, 0, 1);
+    }
+
+    @Test
+    void patch_shouldNotTouchRatingStats_whenRatingUnchanged() {
+        User user = new User(); user.setId(1L);
+        Product product = new Product(); product.setId(2L);
+        Review review = new Review(); review.setId(1L); review.setRating(3); review.setComment("ok"); review.setUser(user); review.setProduct(product);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        reviewService.patch(1L, new ReviewDtos.PatchReviewRequest(3, "only comment"));
+        verifyNoInteractions(productRatingStatsRepository);
     }
 
     @Test
@@ -132,14 +150,17 @@ class ReviewServiceTest {
 
     @Test
     void delete_shouldDelete_whenExists() {
-        when(reviewRepository.existsById(1L)).thenReturn(true);
+        Product product = new Product(); product.setId(2L);
+        Review review = new Review(); review.setId(1L); review.setRating(4); review.setProduct(product);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
         reviewService.delete(1L);
-        verify(reviewRepository).deleteById(1L);
+        verify(reviewRepository).delete(review);
+        verify(productRatingStatsRepository).applyDelta(2L, -1, -4, 0, 0, 0, -1, 0);
     }
 
     @Test
     void delete_shouldThrow_whenNotFound() {
-        when(reviewRepository.existsById(1L)).thenReturn(false);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> reviewService.delete(1L));
     }
 }
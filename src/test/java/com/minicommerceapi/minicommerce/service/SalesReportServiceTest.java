@@ -0,0 +1,130 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.*;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.DailyCategorySalesRepository;
+import com.minicommerceapi.minicommerce.repo.DailyProductSalesRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SalesReportServiceTest {
+    private DailyProductSalesRepository productSalesRepository;
+    private DailyCategorySalesRepository categorySalesRepository;
+    private SalesReportService salesReportService;
+
+    @BeforeEach
+    void setUp() {
+        productSalesRepository = mock(DailyProductSalesRepository.class);
+        categorySalesRepository = mock(DailyCategorySalesRepository.class);
+        salesReportService = new SalesReportService(productSalesRepository, categorySalesRepository,
+                mock(OrderRepository.class), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void orderPlaced_shouldAddPerProduct_andSumPerCategory() {
+        Order order = order(OrderStatus.CREATED);
+
+        salesReportService.orderPlaced(order);
+
+        verify(productSalesRepository).applyDelta("2024-03-05", 10L, 2, 1999, 0, 0);
+        verify(productSalesRepository).applyDelta("2024-03-05", 11L, 1, 500, 0, 0);
+        verify(productSalesRepository).applyDelta("2024-03-05", 12L, 3, 300, 0, 0);
+        verify(categorySalesRepository).applyDelta("2024-03-05", 1L, 3, 2499, 0, 0);
+        verify(categorySalesRepository).applyDelta("2024-03-05", 2L, 3, 300, 0, 0);
+    }
+
+    @Test
+    void statusChanged_shouldCountPayment_andTakeBackCancelledSales() {
+        salesReportService.statusChanged(order(OrderStatus.PAID));
+        verify(categorySalesRepository).applyDelta("2024-03-05", 1L, 0, 0, 3, 2499);
+
+        salesReportService.statusChanged(order(OrderStatus.CANCELLED));
+        verify(categorySalesRepository).applyDelta("2024-03-05", 1L, -3, -2499, 0, 0);
+    }
+
+    @Test
+    void orderDeleted_shouldTakeBackWhatTheOrderStillCounts() {
+        salesReportService.orderDeleted(order(OrderStatus.PAID));
+        verify(productSalesRepository).applyDelta("2024-03-05", 12L, -3, -300, -3, -300);
+
+        clearInvocations(productSalesRepository);
+        salesReportService.orderDeleted(order(OrderStatus.CANCELLED));
+        verify(productSalesRepository).applyDelta("2024-03-05", 12L, 0, 0, 0, 0);
+    }
+
+    @Test
+    void statusChanged_shouldUseCategoryOfTheOrderLine_whenProductMovedSince() {
+        Order order = order(OrderStatus.PAID);
+        for (OrderItem item : order.getItems()) {
+            Category moved = new Category();
+            moved.setId(99L);
+            item.getProduct().setCategory(moved); // siparisten sonra kategori degisti
+        }
+
+        salesReportService.statusChanged(order);
+
+        verify(categorySalesRepository).applyDelta("2024-03-05", 1L, 0, 0, 3, 2499);
+        verify(categorySalesRepository).applyDelta("2024-03-05", 2L, 0, 0, 3, 300);
+        verify(categorySalesRepository, never()).applyDelta(eq("2024-03-05"), eq(99L), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void rebuild_shouldRejectRangesLongerThanTheCap() {
+        assertThrows(BadRequestException.class, () -> salesReportService.rebuild("0001-01-01", "9999-12-31"));
+        assertThrows(BadRequestException.class, () -> salesReportService.rebuild("2024-01-01", "2025-01-01"));
+        assertThrows(BadRequestException.class, () -> salesReportService.rebuild("2024-02-01", "2024-01-31"));
+        verifyNoInteractions(productSalesRepository, categorySalesRepository);
+    }
+
+    @Test
+    void report_shouldRejectInvalidArguments() {
+        assertThrows(BadRequestException.class, () -> salesReportService.report(null, "2024-01-31", "day", 10));
+        assertThrows(BadRequestException.class, () -> salesReportService.report("2024-01-01", "31.01.2024", "day", 10));
+        assertThrows(BadRequestException.class, () -> salesReportService.report("2024-02-01", "2024-01-31", "day", 10));
+        assertThrows(BadRequestException.class, () -> salesReportService.report("2024-01-01", "2024-01-31", "week", 10));
+        assertThrows(BadRequestException.class, () -> salesReportService.report("2024-01-01", "2024-01-31", "product", 0));
+        verifyNoInteractions(productSalesRepository, categorySalesRepository);
+    }
+
+    @Test
+    void cents_shouldRoundToTwoDecimals() {
+        assertEquals(1999, SalesReportService.cents(new BigDecimal("19.99")));
+        assertEquals(500, SalesReportService.cents(BigDecimal.valueOf(5)));
+        assertEquals(101, SalesReportService.cents(new BigDecimal("1.005")));
+    }
+
+    // 2024-03-05 23:30 UTC: gun UTC'ye gore belirlenir
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setStatus(status);
+        ReflectionTestUtils.setField(order, "createdAt", Instant.parse("2024-03-05T23:30:00Z"));
+        order.addItem(item(10L, 1L, 2, "19.99"));
+        order.addItem(item(11L, 1L, 1, "5.00"));
+        order.addItem(item(12L, 2L, 3, "3.00"));
+        return order;
+    }
+
+    private static OrderItem item(Long productId, Long categoryId, int quantity, String lineTotal) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Product product = new Product();
+        product.setId(productId);
+        product.setCategory(category);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setCategoryId(categoryId);
+        item.setQuantity(quantity);
+        item.setLineTotal(new BigDecimal(lineTotal));
+        return item;
+    }
+}
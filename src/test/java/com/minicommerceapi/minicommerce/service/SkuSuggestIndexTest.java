@@ -0,0 +1,81 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SkuSuggestIndexTest {
+
+    private static SkuSuggestIndex index(int compactThreshold) {
+        return new SkuSuggestIndex(mock(ProductRepository.class), mock(PlatformTransactionManager.class), compactThreshold);
+    }
+
+    private static List<String> skus(List<ProductDtos.SkuSuggestion> suggestions) {
+        return suggestions.stream().map(ProductDtos.SkuSuggestion::sku).toList();
+    }
+
+    @Test
+    void suggest_shouldReturnPrefixMatchesInOrder_caseInsensitive() {
+        SkuSuggestIndex index = index(1000);
+        index.put(1L, "KUP-010");
+        index.put(2L, "KUP-002");
+        index.put(3L, "BRD-001");
+        index.put(4L, "kup-001");
+
+        assertEquals(List.of("kup-001", "KUP-002", "KUP-010"), skus(index.suggest("Kup-0", 10)));
+        assertEquals(List.of("kup-001", "KUP-002"), skus(index.suggest("kup", 2)));
+        assertTrue(index.suggest("X", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_shouldMergeCompactedBaseWithDeltaAndSkipRemoved() {
+        SkuSuggestIndex index = index(4);
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, String.format("A-%03d", id)); // esik 4: arada birkac kez birlestirilir
+        }
+        index.remove(3L);
+        index.put(5L, "B-005");       // SKU degisti: eski kayit olu, yeni kayit delta'da
+        index.put(11L, "A-0035");
+
+        assertEquals(List.of("A-001", "A-002", "A-0035", "A-004", "A-006"), skus(index.suggest("a-0", 5)));
+        assertEquals(List.of("B-005"), skus(index.suggest("b", 10)));
+        assertEquals(10, index.size());
+    }
+
+    @Test
+    void remove_shouldDropEntryFromDelta() {
+        SkuSuggestIndex index = index(1000);
+        index.put(1L, "SKU-1");
+        index.remove(1L);
+        assertTrue(index.suggest("sku", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void load_shouldNotResurrectProductRemovedDuringLoad() {
+        ProductRepository repo = mock(ProductRepository.class);
+        SkuSuggestIndex index = new SkuSuggestIndex(repo, mock(PlatformTransactionManager.class), 1000);
+        when(repo.streamLabels()).thenReturn(Stream.of(
+                new ProductDtos.ProductLabel(1L, "Kupa", "KUP-001"),
+                new ProductDtos.ProductLabel(2L, "Kupa", "KUP-002")
+        ).peek(l -> {
+            // satir okunduktan sonra silme commit ediliyor
+            if (l.id() == 2L) {
+                index.remove(2L);
+            }
+        }));
+
+        index.load();
+
+        assertEquals(List.of("KUP-001"), skus(index.suggest("kup", 10)));
+        assertEquals(1, index.size());
+    }
+}
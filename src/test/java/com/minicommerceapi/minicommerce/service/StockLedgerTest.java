@@ -0,0 +1,174 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StockLedgerTest {
+    private ProductRepository productRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private StockLedger ledger;
+    private final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(productRepository.findStocks(any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream()
+                    .filter(stock::containsKey)
+                    .map(id -> new ProductDtos.ProductStock(id, stock.get(id)))
+                    .toList();
+        });
+        ledger = new StockLedger(productRepository, mock(PlatformTransactionManager.class), meterRegistry, true);
+    }
+
+    @Test
+    void reserve_shouldSeedFromDatabaseOnce_andTakeQuantities() {
+        stock.put(1L, 5);
+
+        ledger.reserve(Map.of(1L, 2)).confirm();
+        ledger.reserve(Map.of(1L, 3)).confirm();
+
+        assertEquals(0, ledger.available(1L));
+        verify(productRepository, times(1)).findStocks(any());
+    }
+
+    @Test
+    void reserve_shouldRejectSoldOut_andGiveBackEarlierLines() {
+        stock.put(1L, 5);
+        stock.put(2L, 1);
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 2);
+        quantities.put(2L, 2);
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> ledger.reserve(quantities));
+
+        assertEquals("Insufficient stock for product 2", ex.getMessage());
+        assertEquals(5, ledger.available(1L));
+        assertEquals(1, ledger.available(2L));
+        assertEquals(1.0, meterRegistry.get("stock_ledger.rejections").counter().count());
+    }
+
+    @Test
+    void release_shouldReturnStock_onlyOnce() {
+        stock.put(1L, 3);
+        StockLedger.Reservation r = ledger.reserve(Map.of(1L, 3));
+
+        r.release();
+        r.release();
+        r.confirm();
+
+        assertEquals(3, ledger.available(1L));
+    }
+
+    @Test
+    void reserve_shouldSkipProductsUnknownToDatabase() {
+        assertSame(StockLedger.Reservation.NONE, ledger.reserve(Map.of(9L, 1)));
+        assertNull(ledger.available(9L));
+    }
+
+    @Test
+    void reserve_shouldNeverOversell_underConcurrency() throws Exception {
+        stock.put(1L, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        ledger.reserve(Map.of(1L, 1)).confirm();
+                        sold.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(100, sold.get());
+        assertEquals(400, rejected.get());
+        assertEquals(0, ledger.available(1L));
+    }
+
+    @Test
+    void reportDrift_shouldDropEntry_soItIsSeededAgain() {
+        stock.put(1L, 5);
+        ledger.reserve(Map.of(1L, 1)).release();
+        stock.put(1L, 0);
+
+        ledger.reportDrift(1L);
+
+        assertNull(ledger.available(1L));
+        assertThrows(BadRequestException.class, () -> ledger.reserve(Map.of(1L, 1)));
+        assertEquals(1.0, meterRegistry.get("stock_ledger.drift").tag("source", "checkout").counter().count());
+    }
+
+    @Test
+    void invalidateAfterCommit_shouldDropEntry_whenNoTransactionIsActive() {
+        stock.put(1L, 5);
+        ledger.reserve(Map.of(1L, 1)).confirm();
+
+        ledger.invalidateAfterCommit(1L);
+
+        assertNull(ledger.available(1L));
+    }
+
+    @Test
+    void reconcile_shouldCorrectIdleEntries_andSkipOnesWithReservationsInFlight() {
+        stock.put(1L, 10);
+        stock.put(2L, 10);
+        ledger.reserve(Map.of(1L, 1)).confirm();
+        StockLedger.Reservation open = ledger.reserve(Map.of(2L, 1));
+        stock.put(1L, 4); // stok baska yerden degisti
+        stock.put(2L, 4);
+
+        ledger.reconcile();
+
+        assertEquals(4, ledger.available(1L));
+        assertEquals(9, ledger.available(2L));
+        assertEquals(5.0, meterRegistry.get("stock_ledger.drift.units").gauge().value());
+        assertEquals(1.0, meterRegistry.get("stock_ledger.drift").tag("source", "reconcile").counter().count());
+        open.release();
+    }
+
+    @Test
+    void reconcile_shouldDropEntriesOfDeletedProducts() {
+        stock.put(1L, 3);
+        ledger.reserve(Map.of(1L, 1)).confirm();
+        stock.remove(1L);
+
+        ledger.reconcile();
+
+        assertNull(ledger.available(1L));
+    }
+
+    @Test
+    void reserve_shouldDoNothing_whenDisabled() {
+        StockLedger disabled = new StockLedger(productRepository, mock(PlatformTransactionManager.class), meterRegistry, false);
+        stock.put(1L, 0);
+
+        assertSame(StockLedger.Reservation.NONE, disabled.reserve(Map.of(1L, 5)));
+        verify(productRepository, never()).findStocks(any());
+    }
+}
@@ -0,0 +1,82 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionRetryTest {
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new TransactionRetry(transactionManager, meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    @Test
+    void execute_shouldRetryWholeTransaction_untilItSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("product.patch", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, 1L);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(2.0, count("transactions.retry.conflicts"));
+        assertEquals(2.0, count("transactions.retry.retries"));
+        assertEquals(0.0, count("transactions.retry.exhausted"));
+    }
+
+    @Test
+    void execute_shouldThrowConflictException_whenAttemptsExhausted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ConflictException.class, () -> retry.execute("product.patch", () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("database is locked");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, count("transactions.retry.exhausted"));
+        assertEquals(1.0, count("transactions.retry.executions"));
+    }
+
+    @Test
+    void execute_shouldNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(BadRequestException.class, () -> retry.execute("order.create", () -> {
+            calls.incrementAndGet();
+            throw new BadRequestException("Insufficient stock");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(0.0, count("transactions.retry.conflicts"));
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +24,8 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EmailBloomFilter emailFilter;
     @InjectMocks
     private UserService userService;
 
@@ -60,6 +63,26 @@ class UserServiceTest {
                 .hasMessageContaining("Email already exists");
     }
 
+    @Test
+    void create_shouldSkipExistsQuery_whenFilterSaysDefinitelyAbsent() {
+        UserDtos.CreateUserRequest req = new UserDtos.CreateUserRequest("John Doe", " John@Example.com ");
+        when(emailFilter.definitelyAbsent("john@example.com")).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        userService.create(req);
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailFilter).add("john@example.com");
+    }
+
+    @Test
+    void create_shouldThrowConflictException_whenUniqueConstraintFires() {
+        UserDtos.CreateUserRequest req = new UserDtos.CreateUserRequest("John Doe", "john@example.com");
+        when(emailFilter.definitelyAbsent("john@example.com")).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+        assertThatThrownBy(() -> userService.create(req))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Email already exists");
+    }
+
     @Test
     void list_shouldReturnAllUsers() {
         when(userRepository.findAll()).thenReturn(List.of(user));
@@ -119,6 +142,7 @@ class UserServiceTest {
         doNothing().when(userRepository).deleteById(1L);
         userService.delete(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(emailFilter).removed();
     }
 
     @Test
@@ -0,0 +1,82 @@
+package com.minicommerceapi.minicommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_shouldFireTimersAtTheirDeadline_neverBefore() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, START);
+        wheel.schedule("a", START + 250);
+        wheel.schedule("b", START + 300);
+
+        assertEquals(List.of(), wheel.advance(START + 299));
+        assertEquals(List.of("a", "b"), sorted(wheel.advance(START + 300)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldHandleDeadlinesBeyondOneTurnOfTheWheel() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(10, 4, START);
+        wheel.schedule("near", START + 20);
+        wheel.schedule("far", START + 20 + 4 * 10 * 3); // ayni bucket, uc tur sonra
+
+        assertEquals(List.of("near"), wheel.advance(START + 20));
+        assertEquals(List.of(), wheel.advance(START + 139));
+        assertEquals(List.of("far"), wheel.advance(START + 140));
+    }
+
+    @Test
+    void advance_shouldCatchUpOnMissedTicks_andFirePastDeadlinesImmediately() {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(10, 16, START);
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule(i, START + i * 7L);
+        }
+        wheel.schedule(-1, START - 500);
+        assertEquals(1001, wheel.size());
+
+        List<Integer> fired = wheel.advance(START + 10_000);
+
+        assertEquals(1001, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_shouldAcceptTimersFromOtherThreads() throws Exception {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(10, 64, START);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * 1000;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    wheel.schedule(base + i, START + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, wheel.advance(START + 1000).size());
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimerWheel<>(0, 8, START));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimerWheel<>(10, 0, START));
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+}